@@ -0,0 +1,84 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.easymfne.soundcheck.SequenceRegistry;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+import net.easymfne.soundcheck.datatype.PrefixTrie;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Prefix matching behind tab completion: sound names, as completed by
+ * /playsound, and sequence names, as completed by /sequence, for a short
+ * prefix that matches many names and a longer one that matches few.
+ * 
+ * @author Eric Hildebrand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompletionBenchmark {
+    
+    @Param({ "", "n", "note_p" })
+    private String prefix;
+    
+    @Param({ "1000" })
+    private int sequenceCount;
+    
+    private PrefixTrie sounds;
+    private SequenceRegistry registry;
+    
+    @Setup
+    public void setUp() {
+        sounds = PlayableSound.getNames().getPrefixTrie();
+        ConfigurationSection section = new MemoryConfiguration()
+                .createSection("sequence");
+        String[] words = { "note", "nether", "fanfare", "thunder", "bells" };
+        for (int i = 0; i < sequenceCount; i++) {
+            section.set(words[i % words.length] + "_" + i, Fixtures.frames(4));
+        }
+        registry = new SequenceRegistry(section);
+    }
+    
+    @Benchmark
+    public List<String> sequenceNames() {
+        return registry.complete(prefix);
+    }
+    
+    @Benchmark
+    public List<String> soundNames() {
+        return sounds.complete(prefix);
+    }
+    
+}
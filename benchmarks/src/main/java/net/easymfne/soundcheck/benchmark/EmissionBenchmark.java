@@ -0,0 +1,105 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.easymfne.soundcheck.EmissionManager;
+import net.easymfne.soundcheck.Emitter;
+import net.easymfne.soundcheck.Emitter.Mode;
+import net.easymfne.soundcheck.LoadMonitor;
+import net.easymfne.soundcheck.datatype.Sequence;
+
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dispatch of sounds and effects by the Emitter, in each emission mode, to a
+ * world with players spread over a square around the emission. Each frame
+ * and sound is a batch of its own, so the coalescer does not merge repeated
+ * calls.
+ * 
+ * @author Eric Hildebrand
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmissionBenchmark {
+    
+    @Param({ "BROADCAST", "AUDIENCE" })
+    private Mode mode;
+    
+    @Param({ "10", "200" })
+    private int playerCount;
+    
+    private Emitter<World, Player> emitter;
+    private Location location;
+    private Sequence sequence;
+    
+    @Setup
+    public void setUp() {
+        World world = Fixtures.world("world");
+        location = new Location(world, 0, 64, 0);
+        sequence = Sequence.parse("benchmark", Fixtures.frames(20));
+        emitter = EmissionManager.getEmitter();
+        for (int i = 0; i < playerCount; i++) {
+            /* Spread players over a square 256 blocks across */
+            emitter.getPlayerIndex().update(Fixtures.player("player" + i,
+                    new Location(world, (i * 37) % 256 - 128, 64,
+                            (i * 91) % 256 - 128)));
+        }
+        emitter.setMode(mode);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        EmissionManager.close();
+    }
+    
+    /**
+     * Play every frame of a sequence, as the FramePlayer would over the
+     * sequence's length.
+     */
+    @Benchmark
+    public int frames() {
+        int skipped = 0;
+        for (int i = 0; i < sequence.getFrameCount(); i++) {
+            skipped += sequence.playFrame(i, location, LoadMonitor.FULL);
+        }
+        return skipped;
+    }
+    
+    @Benchmark
+    public void sound() {
+        EmissionManager.playSound(location, Sound.NOTE_PIANO, 1f, 1f);
+    }
+    
+}
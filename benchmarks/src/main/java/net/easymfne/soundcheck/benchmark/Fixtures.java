@@ -0,0 +1,172 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * Stand-ins for the parts of a server the benchmarks touch. World and Player
+ * are dynamic proxies that do nothing and return defaults, so the benchmarks
+ * measure Soundcheck rather than a server. Frame
+ * lists are built in the same form that the configuration produces.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Fixtures {
+    
+    /**
+     * Answers every call on a proxy with a default value. The few calls whose
+     * results Soundcheck relies on are answered from the proxy's own state.
+     */
+    private static class Handler implements InvocationHandler {
+        private final String name;
+        private final UUID id = UUID.randomUUID();
+        private Location location;
+        
+        private Handler(String name) {
+            this.name = name;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String call = method.getName();
+            if (call.equals("equals")) {
+                return proxy == args[0];
+            } else if (call.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            } else if (call.equals("toString") || call.equals("getName")) {
+                return name;
+            } else if (call.equals("getUniqueId") || call.equals("getUID")) {
+                return id;
+            } else if (call.equals("getLocation") && location != null) {
+                if (args == null) {
+                    return location.clone();
+                }
+                Location result = (Location) args[0];
+                result.setWorld(location.getWorld());
+                result.setX(location.getX());
+                result.setY(location.getY());
+                result.setZ(location.getZ());
+                return result;
+            }
+            return defaultValue(method.getReturnType());
+        }
+    }
+    
+    /* Sounds and effects used by generated frames */
+    private static final Sound[] sounds = Sound.values();
+    private static final Effect[] effects = Effect.values();
+    
+    /**
+     * @param type
+     *            Return type of a method
+     * @return Value a method of that type returns when it does nothing
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return (byte) 0;
+    }
+    
+    /**
+     * Build the frames of a sequence as the configuration would read them.
+     * Every frame plays a sound, every other frame also plays an effect, and
+     * frames are spaced a few ticks apart.
+     * 
+     * @param count
+     *            Number of frames
+     * @return List of frames in Map form
+     */
+    public static List<Map<?, ?>> frames(int count) {
+        List<Map<?, ?>> frames = new ArrayList<Map<?, ?>>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> frame = new LinkedHashMap<String, Object>();
+            frame.put("time", i * 2);
+            frame.put("sound", sounds[i % sounds.length].name() + ":1:"
+                    + (0.5 + (i % 4) * 0.25));
+            if (i % 2 == 0) {
+                frame.put("effect", effects[i % effects.length].name()
+                        + ":0:32");
+            }
+            frames.add(frame);
+        }
+        return frames;
+    }
+    
+    /**
+     * Build a player that stands still at a location.
+     * 
+     * @param name
+     *            Player name
+     * @param location
+     *            Where the player stands
+     * @return Stand-in player
+     */
+    public static Player player(String name, Location location) {
+        Handler handler = new Handler(name);
+        handler.location = location.clone();
+        return proxy(Player.class, handler);
+    }
+    
+    /**
+     * @param type
+     *            Interface to implement
+     * @param handler
+     *            Handler answering its calls
+     * @return Proxy implementing the interface
+     */
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(Fixtures.class
+                .getClassLoader(), new Class<?>[] { type }, handler));
+    }
+    
+    /**
+     * @param name
+     *            World name
+     * @return Stand-in world that discards everything played in it
+     */
+    public static World world(String name) {
+        return proxy(World.class, new Handler(name));
+    }
+    
+}
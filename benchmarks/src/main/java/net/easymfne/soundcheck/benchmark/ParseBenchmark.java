@@ -0,0 +1,78 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.easymfne.soundcheck.datatype.Coordinates;
+import net.easymfne.soundcheck.datatype.PlayableEffect;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of the sound, effect, and coordinate arguments that every command
+ * reads, for well-formed arguments and for arguments that are rejected.
+ * 
+ * @author Eric Hildebrand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+    
+    private String sound = "NOTE_PIANO:1:1.5";
+    private String soundAlias = "note_piano:0.75:2";
+    private String effect = "MOBSPAWNER_FLAMES:0:32";
+    private String coordinates = "-1024.5,64,2048.25";
+    private String malformed = "NOTE_PIANO:loud:1";
+    
+    @Benchmark
+    public Coordinates coordinates() {
+        return Coordinates.parse(coordinates);
+    }
+    
+    @Benchmark
+    public PlayableEffect effect() {
+        return PlayableEffect.parse(effect);
+    }
+    
+    @Benchmark
+    public PlayableSound malformedSound() {
+        return PlayableSound.parse(malformed);
+    }
+    
+    @Benchmark
+    public PlayableSound sound() {
+        return PlayableSound.parse(sound);
+    }
+    
+    @Benchmark
+    public PlayableSound soundIgnoringCase() {
+        return PlayableSound.parse(soundAlias);
+    }
+    
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.easymfne.soundcheck.PlaybackLimits;
+import net.easymfne.soundcheck.PlaybackLimits.Policy;
+import net.easymfne.soundcheck.SequenceManager;
+import net.easymfne.soundcheck.datatype.Sequence;
+import net.easymfne.soundcheck.engine.Cue;
+import net.easymfne.soundcheck.engine.Engine;
+import net.easymfne.soundcheck.engine.ManualClock;
+
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scheduling of playbacks by the engine the SequenceManager uses, with a number
+ * of playbacks already active. The engine is ticked by a ManualClock rather
+ * than a server, so admitting, refusing, and releasing a playback can be
+ * measured on their own, and a whole tick can be run as fast as it will go.
+ * 
+ * @author Eric Hildebrand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchedulingBenchmark {
+    
+    @Param({ "1", "100", "1000" })
+    private int active;
+    
+    private ManualClock clock;
+    private Engine<Sequence, Location> engine;
+    private Sequence sequence;
+    private Location location;
+    private PlaybackLimits full;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        clock = new ManualClock();
+        engine = SequenceManager.newEngine(clock);
+        sequence = Sequence.parse("benchmark", Fixtures.frames(20));
+        location = new Location(Fixtures.world("world"), 0, 64, 0);
+        full = new PlaybackLimits(active, 0, 0, Policy.DROP, 0);
+        fill();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+    
+    /**
+     * Start playbacks until the wanted number are active.
+     */
+    private void fill() {
+        engine.setLimits(PlaybackLimits.UNLIMITED);
+        while (engine.getActiveCount() < active) {
+            engine.play(sequence, location);
+        }
+    }
+    
+    /**
+     * Start a playback and cancel it, with no limits to check.
+     */
+    @Benchmark
+    public Cue<Sequence, Location> queueAndCancel() {
+        engine.setLimits(PlaybackLimits.UNLIMITED);
+        Cue<Sequence, Location> playback = engine.play(sequence, location);
+        playback.cancel();
+        return playback;
+    }
+    
+    /**
+     * Offer a playback that is refused because the global cap is reached.
+     */
+    @Benchmark
+    public Cue<Sequence, Location> refuse() {
+        engine.setLimits(full);
+        return engine.play(sequence, location);
+    }
+    
+    /**
+     * Advance every active playback by one tick, playing their due frames
+     * through the Emitter to a world that discards them, and replace those
+     * that finish.
+     */
+    @Benchmark
+    public boolean tick() {
+        boolean ran = clock.tick();
+        fill();
+        return ran;
+    }
+    
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import org.bukkit.Material;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+
+/**
+ * The class that listens for block events, forgetting cached command block
+ * invocations when a command block is broken or placed.
+ * 
+ * @author Eric Hildebrand
+ */
+public class BlockListener implements Listener {
+    
+    private Soundcheck plugin = null;
+    
+    /**
+     * Instantiate by getting a reference to the plugin instance and
+     * registering each of the defined EventHandlers.
+     * 
+     * @param plugin
+     *            Reference to Soundcheck plugin instance
+     */
+    public BlockListener(Soundcheck plugin) {
+        this.plugin = plugin;
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+    
+    /**
+     * Unregister all of the EventHandlers and release the plugin reference.
+     */
+    public void close() {
+        HandlerList.unregisterAll(this);
+        plugin = null;
+    }
+    
+    /**
+     * Forget the invocations of a command block that has been broken.
+     * 
+     * @param event
+     *            Block break event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        if (event.getBlock().getType() == Material.COMMAND) {
+            plugin.getInvocationCache().invalidate(event.getBlock());
+        }
+    }
+    
+    /**
+     * Forget the invocations of a command block that has been placed where
+     * another once stood.
+     * 
+     * @param event
+     *            Block place event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (event.getBlockPlaced().getType() == Material.COMMAND) {
+            plugin.getInvocationCache().invalidate(event.getBlockPlaced());
+        }
+    }
+    
+}
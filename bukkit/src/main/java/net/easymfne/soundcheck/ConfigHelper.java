@@ -0,0 +1,199 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import net.easymfne.soundcheck.datatype.NameTable;
+
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Configuration helper class, with methods for accessing the configuration.
+ * Each instance reads one version of the configuration, so a helper for a
+ * newly loaded configuration can be prepared while the old one is in use.
+ * 
+ * @author Eric Hildebrand
+ */
+public class ConfigHelper {
+    
+    private Soundcheck plugin = null;
+    private Configuration config = null;
+    
+    /**
+     * Instantiate the class and give it a reference back to the plugin itself,
+     * reading the plugin's current configuration.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin
+     */
+    public ConfigHelper(Soundcheck plugin) {
+        this(plugin, plugin.getConfig());
+    }
+    
+    /**
+     * Instantiate the class and give it a reference back to the plugin itself,
+     * reading the given configuration.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin
+     * @param config
+     *            Configuration to read
+     */
+    public ConfigHelper(Soundcheck plugin, Configuration config) {
+        this.plugin = plugin;
+        this.config = config;
+    }
+    
+    /**
+     * @return Distance within which identical emissions in the same tick are
+     *         merged, or a negative number if they are never merged.
+     */
+    public double getCoalesceDistance() {
+        return config.getDouble("emission.coalesce-distance", 1.0);
+    }
+    
+    /**
+     * @return Most command block invocations to keep parsed, or 0 to disable
+     *         the cache.
+     */
+    public int getCommandCacheSize() {
+        return Math.max(0, config.getInt("command-cache.size", 256));
+    }
+    
+    /**
+     * @return Emission mode from 'config.yml'.
+     */
+    public Emitter.Mode getEmissionMode() {
+        String modeName = config.getString("emission.mode", "BROADCAST");
+        try {
+            return Emitter.Mode.valueOf(modeName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.fancyLog(Level.WARNING, "Unknown emission mode '"
+                    + modeName + "', using BROADCAST");
+            return Emitter.Mode.BROADCAST;
+        }
+    }
+    
+    /**
+     * Build a table of the names of an enum's constants, with any aliases
+     * listed under the given section of 'config.yml'.
+     * 
+     * @param type
+     *            Enum class
+     * @param path
+     *            Path of the section of aliases, such as "aliases.sound"
+     * @return Table of names and aliases
+     */
+    public <E extends Enum<E>> NameTable<E> getNameTable(Class<E> type,
+            String path) {
+        Map<String, String> aliases = new HashMap<String, String>();
+        ConfigurationSection section = config.getConfigurationSection(path);
+        if (section != null) {
+            for (String alias : section.getKeys(false)) {
+                String name = section.getString(alias);
+                if (name != null) {
+                    aliases.put(alias, name);
+                }
+            }
+        }
+        return new NameTable<E>(type, aliases);
+    }
+    
+    /**
+     * @return Caps on concurrent sequence playbacks from 'config.yml'.
+     */
+    public PlaybackLimits getPlaybackLimits() {
+        String policyName = config.getString("limits.policy", "DROP");
+        PlaybackLimits.Policy policy;
+        try {
+            policy = PlaybackLimits.Policy.valueOf(policyName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.fancyLog(Level.WARNING, "Unknown limit policy '"
+                    + policyName + "', using DROP");
+            policy = PlaybackLimits.Policy.DROP;
+        }
+        return new PlaybackLimits(config.getInt("limits.global", 0),
+                config.getInt("limits.per-world", 0), config.getInt(
+                        "limits.per-sequence", 0), policy, config.getInt(
+                        "limits.queue-size", 100));
+    }
+    
+    /**
+     * Configure a LoadMonitor from the "degrade" settings in 'config.yml'.
+     * 
+     * @param loadMonitor
+     *            LoadMonitor to configure
+     */
+    public void configureLoadMonitor(LoadMonitor loadMonitor) {
+        loadMonitor.configure(config.getBoolean("degrade.enabled", true),
+                config.getDouble("degrade.shrink-radius-tps", 18.0),
+                config.getDouble("degrade.drop-effects-tps", 16.0),
+                config.getDouble("degrade.thin-frames-tps", 14.0));
+    }
+    
+    /**
+     * @return RateLimiter built from the "rate-limit" settings in 'config.yml'.
+     */
+    public RateLimiter getRateLimiter() {
+        if (!config.getBoolean("rate-limit.enabled", true)) {
+            return new RateLimiter();
+        }
+        RateLimiter.Target[] targets = RateLimiter.Target.values();
+        double[] bursts = new double[targets.length];
+        double[] perSecond = new double[targets.length];
+        for (RateLimiter.Target target : targets) {
+            String path = "rate-limit." + target.getName();
+            bursts[target.ordinal()] = Math.max(1.0,
+                    config.getDouble(path + ".burst", 20.0));
+            perSecond[target.ordinal()] = Math.max(0.0,
+                    config.getDouble(path + ".per-second", 10.0));
+        }
+        return new RateLimiter(bursts, perSecond);
+    }
+    
+    /**
+     * @return Most sequence files to keep compiled, or 0 to compile them each
+     *         time they are played.
+     */
+    public int getSequenceCacheSize() {
+        return Math.max(0, config.getInt("sequence-cache.size", 256));
+    }
+    
+    /**
+     * @return ConfigurationSection "sequence" from 'config.yml'.
+     */
+    public ConfigurationSection getSequences() {
+        return config.getConfigurationSection("sequence");
+    }
+    
+    /**
+     * @return Whether every sequence is validated when the plugin is enabled.
+     */
+    public boolean isValidateOnEnable() {
+        return config.getBoolean("validate.on-enable", true);
+    }
+    
+    /**
+     * @return Whether 'config.yml' is watched for changed sequences.
+     */
+    public boolean isWatchEnabled() {
+        return config.getBoolean("watch.enabled", false);
+    }
+    
+}
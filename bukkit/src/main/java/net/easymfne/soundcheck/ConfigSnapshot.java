@@ -0,0 +1,185 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import net.easymfne.soundcheck.datatype.NameTable;
+
+import org.bukkit.Effect;
+import org.bukkit.EntityEffect;
+import org.bukkit.Sound;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Everything that is built from one version of 'config.yml' before it can be
+ * used: the parsed file, the tables of names and aliases, the compiled
+ * sequences, and the index of sequence files. Building a snapshot can be done
+ * off the main thread and then applied to the plugin all at once. The only
+ * shared state it touches is the plugin's {@link SequenceCache}, which is
+ * synchronized; settings that may log a warning are only read by the
+ * {@link ConfigHelper} once the snapshot is applied on the main thread.
+ * 
+ * @author Eric Hildebrand
+ */
+public class ConfigSnapshot {
+    
+    /**
+     * Read 'config.yml' from disk, with the defaults from the plugin jar, and
+     * compile everything in it.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin
+     * @return Snapshot of the file
+     * @throws IOException
+     *             if the file cannot be read
+     * @throws InvalidConfigurationException
+     *             if the file is not valid YAML
+     */
+    public static ConfigSnapshot load(Soundcheck plugin) throws IOException,
+            InvalidConfigurationException {
+        return new ConfigSnapshot(plugin, read(plugin));
+    }
+    
+    /**
+     * Read 'config.yml' from disk, with the defaults from the plugin jar,
+     * without compiling anything.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin
+     * @return Contents of the file
+     * @throws IOException
+     *             if the file cannot be read
+     * @throws InvalidConfigurationException
+     *             if the file is not valid YAML
+     */
+    public static YamlConfiguration read(Soundcheck plugin)
+            throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(new File(plugin.getDataFolder(), "config.yml"));
+        InputStream defaults = plugin.getResource("config.yml");
+        if (defaults != null) {
+            config.setDefaults(YamlConfiguration.loadConfiguration(defaults));
+        }
+        return config;
+    }
+    
+    private final FileConfiguration config;
+    private final ConfigHelper configHelper;
+    private final NameTable<Sound> soundNames;
+    private final NameTable<Effect> effectNames;
+    private final NameTable<EntityEffect> entityEffectNames;
+    private final SequenceRegistry sequenceRegistry;
+    
+    /**
+     * Compile everything in a configuration that has already been loaded.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin
+     * @param config
+     *            Loaded configuration
+     */
+    public ConfigSnapshot(Soundcheck plugin, FileConfiguration config) {
+        this.config = config;
+        configHelper = new ConfigHelper(plugin, config);
+        soundNames = configHelper.getNameTable(Sound.class, "aliases.sound");
+        effectNames = configHelper.getNameTable(Effect.class, "aliases.effect");
+        entityEffectNames = configHelper.getNameTable(EntityEffect.class,
+                "aliases.entity-effect");
+        SequenceLibrary library = new SequenceLibrary(new File(
+                plugin.getDataFolder(), "sequences"),
+                configHelper.getSequenceCacheSize(), soundNames, effectNames,
+                plugin.getSequenceCache());
+        sequenceRegistry = new SequenceRegistry(configHelper.getSequences(),
+                soundNames, effectNames, library);
+    }
+    
+    /**
+     * @return The loaded configuration
+     */
+    public FileConfiguration getConfig() {
+        return config;
+    }
+    
+    /**
+     * @return Helper that reads the loaded configuration
+     */
+    public ConfigHelper getConfigHelper() {
+        return configHelper;
+    }
+    
+    /**
+     * @return Table of effect names and aliases
+     */
+    public NameTable<Effect> getEffectNames() {
+        return effectNames;
+    }
+    
+    /**
+     * @return Table of entity effect names and aliases
+     */
+    public NameTable<EntityEffect> getEntityEffectNames() {
+        return entityEffectNames;
+    }
+    
+    /**
+     * Describe every problem found while compiling the configuration, one
+     * message per problem.
+     * 
+     * @return Error messages, empty if the configuration is valid
+     */
+    public List<String> getErrors() {
+        Map<String, String> errors = sequenceRegistry.getErrors();
+        if (errors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> messages = new ArrayList<String>(errors.size());
+        for (Map.Entry<String, String> error : errors.entrySet()) {
+            messages.add("Error in sequence '" + error.getKey() + "': "
+                    + error.getValue());
+        }
+        return messages;
+    }
+    
+    /**
+     * @return Registry of the compiled sequences
+     */
+    public SequenceRegistry getSequenceRegistry() {
+        return sequenceRegistry;
+    }
+    
+    /**
+     * @return Table of sound names and aliases
+     */
+    public NameTable<Sound> getSoundNames() {
+        return soundNames;
+    }
+    
+    /**
+     * @return Whether the configuration compiled without any errors
+     */
+    public boolean isValid() {
+        return sequenceRegistry.getErrors().isEmpty();
+    }
+    
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The 64-bit FNV-1a hash, used to tell whether the source of a sequence has
+ * changed and whether a cache file is intact. Each method continues a hash
+ * that was started with INITIAL, so several pieces can be hashed together.
+ * 
+ * @author Eric Hildebrand
+ */
+final class ContentHash {
+    
+    /**
+     * Hash of nothing, to start from.
+     */
+    static final long INITIAL = 0xcbf29ce484222325L;
+    
+    private static final long PRIME = 0x100000001b3L;
+    
+    /**
+     * @param hash
+     *            Hash so far
+     * @param bytes
+     *            Bytes to add
+     * @param start
+     *            First byte to add
+     * @param end
+     *            End of the bytes to add
+     * @return Updated hash
+     */
+    static long update(long hash, byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * PRIME;
+        }
+        return hash;
+    }
+    
+    /**
+     * @param hash
+     *            Hash so far
+     * @param buffer
+     *            Buffer holding the bytes to add, whose position is ignored
+     * @param start
+     *            First byte to add
+     * @param end
+     *            End of the bytes to add
+     * @return Updated hash
+     */
+    static long update(long hash, ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * PRIME;
+        }
+        return hash;
+    }
+    
+    /**
+     * @param hash
+     *            Hash so far
+     * @param chars
+     *            Characters to add
+     * @return Updated hash
+     */
+    static long update(long hash, CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            hash = (hash ^ chars.charAt(i)) * PRIME;
+        }
+        return hash;
+    }
+    
+    /**
+     * @param hash
+     *            Hash so far
+     * @param value
+     *            Number to add, as its eight bytes
+     * @return Updated hash
+     */
+    static long update(long hash, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * PRIME;
+        }
+        return hash;
+    }
+    
+    private ContentHash() {
+    }
+    
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * This class is used for emitting sounds and effects at Locations. Emissions
+ * are made by an Emitter from the core, which plays in worlds through a
+ * WorldVenue and sends to players through a PlayerAudience. Each sound or
+ * effect played here is a batch of its own, so it is never merged with an
+ * earlier one. Until the plugin is enabled, emissions are played without
+ * mutes.
+ * 
+ * @author Eric Hildebrand
+ */
+public class EmissionManager {
+    
+    private static Emitter<World, Player> emitter = newEmitter(null);
+    
+    /**
+     * Clear all emission state and release the Soundcheck plugin.
+     */
+    public static void close() {
+        emitter.close();
+        emitter = newEmitter(null);
+    }
+    
+    /**
+     * @return Emitter that plays the plugin's sounds and effects
+     */
+    public static Emitter<World, Player> getEmitter() {
+        return emitter;
+    }
+    
+    /**
+     * @return Index of online players, by world and chunk
+     */
+    public static PlayerIndex<World, Player> getPlayerIndex() {
+        return emitter.getPlayerIndex();
+    }
+    
+    /**
+     * Create the emitter, using the Soundcheck plugin's MuteList.
+     * 
+     * @param plugin
+     *            Soundcheck plugin
+     */
+    public static void init(Soundcheck plugin) {
+        emitter.close();
+        emitter = newEmitter(plugin);
+    }
+    
+    /**
+     * Build an emitter for Bukkit worlds and players.
+     * 
+     * @param plugin
+     *            Soundcheck plugin whose MuteList is used, or null to mute
+     *            nobody
+     * @return New emitter
+     */
+    public static Emitter<World, Player> newEmitter(Soundcheck plugin) {
+        return new Emitter<World, Player>(new WorldVenue(),
+                new PlayerAudience(plugin));
+    }
+    
+    /**
+     * Play an effect at a location.
+     * 
+     * @param location
+     *            Location
+     * @param effect
+     *            Effect
+     * @param data
+     *            Effect's data byte
+     * @param radius
+     *            Effect's radius, or -1 for the default radius
+     */
+    public static void playEffect(Location location, Effect effect, int data,
+            int radius) {
+        emitter.startBatch();
+        emitter.playEffect(location.getWorld(), location.getX(),
+                location.getY(), location.getZ(), effect.ordinal(), data,
+                radius);
+    }
+    
+    /**
+     * Play a sound at a location.
+     * 
+     * @param location
+     *            Location
+     * @param sound
+     *            Sound
+     * @param volume
+     *            Volume
+     * @param pitch
+     *            Pitch
+     */
+    public static void playSound(Location location, Sound sound, float volume,
+            float pitch) {
+        emitter.startBatch();
+        emitter.playSound(location.getWorld(), location.getX(),
+                location.getY(), location.getZ(), sound.ordinal(), volume,
+                pitch);
+    }
+    
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import net.easymfne.soundcheck.datatype.Sequence;
+import net.easymfne.soundcheck.engine.Sink;
+
+import org.bukkit.Location;
+
+/**
+ * Sink that plays the frames of sequences in the world through the Emitter,
+ * with a region for each world. Each engine tick is one batch of the
+ * Emitter, so identical frames played by several sequences on the same tick
+ * are merged.
+ * 
+ * @author Eric Hildebrand
+ */
+public class EmitterSink implements Sink<Sequence, Location> {
+    
+    @Override
+    public String getRegion(Location location) {
+        return location.getWorld().getName();
+    }
+    
+    @Override
+    public int play(Sequence sequence, int index, Location location,
+            int level) {
+        return sequence.playFrame(index, EmissionManager.getEmitter(),
+                location.getWorld(), location.getX(), location.getY(),
+                location.getZ(), level);
+    }
+    
+    @Override
+    public void startTick() {
+        EmissionManager.getEmitter().startBatch();
+    }
+    
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import net.easymfne.soundcheck.engine.Clock;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Clock that ticks with the server, running the engine's task as a single
+ * repeating BukkitScheduler task that plays the due frames of every active
+ * sequence once per tick.
+ * 
+ * @author Eric Hildebrand
+ */
+public class FramePlayer implements Clock {
+    
+    private final Plugin plugin;
+    private BukkitTask task = null;
+    
+    /**
+     * @param plugin
+     *            Plugin that owns the repeating task
+     */
+    public FramePlayer(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public long getTime() {
+        return System.nanoTime();
+    }
+    
+    @Override
+    public void start(Runnable tick) {
+        stop();
+        task = plugin.getServer().getScheduler()
+                .runTaskTimer(plugin, tick, 0L, 1L);
+    }
+    
+    @Override
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+}
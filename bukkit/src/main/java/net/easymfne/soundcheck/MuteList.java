@@ -0,0 +1,195 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Players who have opted out of sounds and effects with /soundmute, by unique
+ * ID so that the choice survives a change of name. The list is kept in a file
+ * of one ID per line, which is read when the plugin is enabled and written
+ * off the main thread each time a player changes their choice. Changes made
+ * while a write is waiting are folded into it, so the file only ever gets
+ * the latest list. Opting out only takes effect in the AUDIENCE emission
+ * mode, where each player is sent emissions directly. The list itself must
+ * only be used on the main thread.
+ * 
+ * @author Eric Hildebrand
+ */
+public class MuteList {
+    
+    private final File file;
+    private final Set<UUID> muted = new HashSet<UUID>();
+    /* Held while writing, so writes happen one at a time */
+    private final Object writing = new Object();
+    /* Latest list waiting to be written, or null if there is none */
+    private List<String> pending = null;
+    
+    /**
+     * @param file
+     *            File of muted players, which need not exist
+     */
+    public MuteList(File file) {
+        this.file = file;
+    }
+    
+    /**
+     * Write the list waiting to be written, if there is one. Called by the
+     * task that saveLater() starts, and when the plugin is disabled, so that
+     * a change is not lost with a cancelled task. Waits for a write that is
+     * already in progress.
+     * 
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void flush() throws IOException {
+        synchronized (writing) {
+            List<String> lines;
+            synchronized (this) {
+                lines = pending;
+                pending = null;
+            }
+            if (lines != null) {
+                write(lines);
+            }
+        }
+    }
+    
+    /**
+     * @param id
+     *            Unique ID of a player
+     * @return Whether the player has opted out of sounds and effects
+     */
+    public boolean isMuted(UUID id) {
+        return muted.contains(id);
+    }
+    
+    /**
+     * Read the file of muted players. If the file is missing, nobody is muted.
+     * Lines that are blank or not unique IDs are ignored.
+     * 
+     * @throws IOException
+     *             if the file cannot be read, in which case nobody is muted
+     */
+    public void load() throws IOException {
+        muted.clear();
+        if (!file.isFile()) {
+            return;
+        }
+        for (String line : Files.readAllLines(file.toPath(),
+                StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                muted.add(UUID.fromString(line));
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+        }
+    }
+    
+    /**
+     * Save the list in an asynchronous task. The list is copied now, on the
+     * main thread; if a write is already waiting, it takes the copy in place
+     * of the one it had and no other task is started.
+     * 
+     * @param plugin
+     *            Plugin that runs the task and logs a failed write
+     */
+    public void saveLater(final Soundcheck plugin) {
+        List<String> lines = new ArrayList<String>(muted.size());
+        for (UUID id : muted) {
+            lines.add(id.toString());
+        }
+        synchronized (this) {
+            boolean waiting = (pending != null);
+            pending = lines;
+            if (waiting) {
+                return;
+            }
+        }
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            flush();
+                        } catch (IOException e) {
+                            plugin.fancyLog(Level.WARNING,
+                                    "Failed to save muted players: "
+                                            + e.getMessage());
+                        }
+                    }
+                });
+    }
+    
+    /**
+     * @return Number of muted players
+     */
+    public int size() {
+        return muted.size();
+    }
+    
+    /**
+     * Switch a player between hearing and not hearing sounds and effects.
+     * 
+     * @param id
+     *            Unique ID of a player
+     * @return Whether the player is now muted
+     */
+    public boolean toggle(UUID id) {
+        if (muted.remove(id)) {
+            return false;
+        }
+        muted.add(id);
+        return true;
+    }
+    
+    /**
+     * Write the file of muted players. The file is written beside the old one
+     * and moved over it, so a failed write leaves the old file intact.
+     * 
+     * @param lines
+     *            Unique IDs of the muted players, as text
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private void write(List<String> lines) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), lines, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+}
@@ -23,6 +23,15 @@ import org.bukkit.permissions.Permissible;
  */
 public class Perms {
     
+    /**
+     * @param p
+     *            User
+     * @return Whether user can use SoundMute command
+     */
+    public static boolean canUseMute(Permissible p) {
+        return p.hasPermission("soundcheck.command.soundmute");
+    }
+    
     /**
      * @param p
      *            User
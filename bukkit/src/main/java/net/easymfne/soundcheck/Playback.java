@@ -0,0 +1,54 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import net.easymfne.soundcheck.datatype.Sequence;
+import net.easymfne.soundcheck.engine.Cue;
+import net.easymfne.soundcheck.engine.Engine;
+
+import org.bukkit.Location;
+
+/**
+ * A single running instance of a sequence at a location, and the handle used
+ * to control it. The cue it extends keeps a cursor into the sequence's
+ * time-ordered frames so that each tick only touches the frames that are due.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Playback extends Cue<Sequence, Location> {
+    
+    /**
+     * @param engine
+     *            Engine that plays the sequence
+     * @param id
+     *            Unique playback ID
+     * @param sequence
+     *            Sequence to play
+     * @param location
+     *            Where to play sequence
+     */
+    Playback(Engine<Sequence, Location> engine, int id, Sequence sequence,
+            Location location) {
+        super(engine, id, sequence, location);
+    }
+    
+    /**
+     * @return Sequence being played
+     */
+    public Sequence getSequence() {
+        return getTimeline();
+    }
+    
+}
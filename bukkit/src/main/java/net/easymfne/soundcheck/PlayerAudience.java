@@ -0,0 +1,103 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.UUID;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * The Audience of Bukkit players, which locates them, checks the plugin's
+ * MuteList, and sends the Emitter's sounds and effects to each player
+ * directly. Locations are read and written through scratch Locations, so this
+ * must only be used from the main thread.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayerAudience implements Audience<World, Player> {
+    
+    /* Cached enum values for resolving ordinals */
+    private static final Sound[] sounds = Sound.values();
+    private static final Effect[] effects = Effect.values();
+    
+    private final Soundcheck plugin;
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private final Location location = new Location(null, 0, 0, 0);
+    
+    /**
+     * @param plugin
+     *            Soundcheck plugin whose MuteList is checked, or null if
+     *            nobody is muted
+     */
+    public PlayerAudience(Soundcheck plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @return Scratch location set to the point
+     */
+    private Location at(World world, double x, double y, double z) {
+        scratch.setWorld(world);
+        scratch.setX(x);
+        scratch.setY(y);
+        scratch.setZ(z);
+        return scratch;
+    }
+    
+    @Override
+    public UUID getId(Player player) {
+        return player.getUniqueId();
+    }
+    
+    @Override
+    public boolean isMuted(Player player) {
+        MuteList mutes = (plugin == null ? null : plugin.getMuteList());
+        return mutes != null && mutes.isMuted(player.getUniqueId());
+    }
+    
+    @Override
+    public World locate(Player player, double[] position) {
+        player.getLocation(location);
+        position[0] = location.getX();
+        position[1] = location.getY();
+        position[2] = location.getZ();
+        return location.getWorld();
+    }
+    
+    @Override
+    public void playEffect(Player player, World world, double x, double y,
+            double z, int effect, int data) {
+        player.playEffect(at(world, x, y, z), effects[effect], data);
+    }
+    
+    @Override
+    public void playSound(Player player, World world, double x, double y,
+            double z, int sound, float volume, float pitch) {
+        player.playSound(at(world, x, y, z), sounds[sound], volume, pitch);
+    }
+    
+}
@@ -0,0 +1,206 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleExitEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+/**
+ * The class that listens for player and vehicle events, keeping the
+ * PlayerIndex, PlayerNames, and other per-player state up to date.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayerListener implements Listener {
+    
+    private Soundcheck plugin = null;
+    
+    /**
+     * Instantiate by getting a reference to the plugin instance, registering
+     * each of the defined EventHandlers, and indexing every player that is
+     * already online.
+     * 
+     * @param plugin
+     *            Reference to Soundcheck plugin instance
+     */
+    public PlayerListener(Soundcheck plugin) {
+        this.plugin = plugin;
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            EmissionManager.getPlayerIndex().update(player);
+            PlayerNames.add(player);
+        }
+    }
+    
+    /**
+     * Unregister all of the EventHandlers, clear the PlayerIndex and
+     * PlayerNames, and release the plugin reference.
+     */
+    public void close() {
+        HandlerList.unregisterAll(this);
+        EmissionManager.getPlayerIndex().clear();
+        PlayerNames.clear();
+        plugin = null;
+    }
+    
+    /**
+     * Record in the PlayerIndex that a player is at a location.
+     * 
+     * @param player
+     *            Player
+     * @param location
+     *            Player's new location
+     */
+    private void index(Player player, Location location) {
+        EmissionManager.getPlayerIndex().update(player, location.getWorld(),
+                location.getX(), location.getZ());
+    }
+    
+    /**
+     * Test whether a move crosses into another chunk.
+     * 
+     * @param from
+     *            Old location
+     * @param to
+     *            New location
+     * @return Whether the chunk has changed
+     */
+    private static boolean isNewChunk(Location from, Location to) {
+        return (from.getBlockX() >> 4) != (to.getBlockX() >> 4)
+                || (from.getBlockZ() >> 4) != (to.getBlockZ() >> 4);
+    }
+    
+    /**
+     * Re-index a player who has moved to another world.
+     * 
+     * @param event
+     *            World change event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        EmissionManager.getPlayerIndex().update(event.getPlayer());
+    }
+    
+    /**
+     * Index a player who has joined.
+     * 
+     * @param event
+     *            Join event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        EmissionManager.getPlayerIndex().update(event.getPlayer());
+        PlayerNames.add(event.getPlayer());
+    }
+    
+    /**
+     * Re-index a player who has crossed into another chunk. Movement within a
+     * chunk is ignored without touching the index.
+     * 
+     * @param event
+     *            Move event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (isNewChunk(event.getFrom(), event.getTo())) {
+            index(event.getPlayer(), event.getTo());
+        }
+    }
+    
+    /**
+     * Forget per-player state when a player leaves.
+     * 
+     * @param event
+     *            Quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        EmissionManager.getPlayerIndex().remove(event.getPlayer());
+        PlayerNames.remove(event.getPlayer());
+        EmissionManager.getEmitter().forget(event.getPlayer());
+    }
+    
+    /**
+     * Re-index a player who has respawned.
+     * 
+     * @param event
+     *            Respawn event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        index(event.getPlayer(), event.getRespawnLocation());
+    }
+    
+    /**
+     * Re-index a player who has teleported.
+     * 
+     * @param event
+     *            Teleport event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        index(event.getPlayer(), event.getTo());
+    }
+    
+    /**
+     * Re-index a player who has got out of a vehicle, as their position was
+     * only followed through the vehicle while they rode it.
+     * 
+     * @param event
+     *            Vehicle exit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onVehicleExit(VehicleExitEvent event) {
+        if (event.getExited() instanceof Player) {
+            EmissionManager.getPlayerIndex().update(
+                    (Player) event.getExited());
+        }
+    }
+    
+    /**
+     * Re-index the players riding a vehicle that has crossed into another
+     * chunk, as riders do not fire move events of their own.
+     * 
+     * @param event
+     *            Vehicle move event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        if (!isNewChunk(event.getFrom(), event.getTo())) {
+            return;
+        }
+        Entity rider = event.getVehicle().getPassenger();
+        while (rider != null) {
+            if (rider instanceof Player) {
+                index((Player) rider, event.getTo());
+            }
+            rider = rider.getPassenger();
+        }
+    }
+    
+}
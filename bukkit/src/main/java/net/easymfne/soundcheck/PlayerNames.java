@@ -0,0 +1,127 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import net.easymfne.soundcheck.datatype.PrefixTrie;
+
+import org.bukkit.entity.Player;
+import org.bukkit.util.StringUtil;
+
+/**
+ * Names of online players, indexed for lookup by name and sorted for tab
+ * completion. It is kept up to date by PlayerListener, so neither finding a
+ * player by name nor completing a name ever walks the online player list.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayerNames {
+    
+    /*
+     * Longest name looked up: twice what Minecraft allows, leaving room for
+     * the prefixes that proxies and offline-mode servers may add, such as
+     * '.Steve' or '*Steve'
+     */
+    private static final int MAX_LENGTH = 32;
+    
+    private static final TreeSet<String> names = new TreeSet<String>(
+            String.CASE_INSENSITIVE_ORDER);
+    private static final Map<String, Player> players =
+            new HashMap<String, Player>();
+    
+    /**
+     * @param player
+     *            Player who has joined
+     */
+    public static void add(Player player) {
+        names.add(player.getName());
+        players.put(player.getName().toLowerCase(Locale.ENGLISH), player);
+    }
+    
+    /**
+     * Forget every name.
+     */
+    public static void clear() {
+        names.clear();
+        players.clear();
+    }
+    
+    /**
+     * Find the names of online players beginning with a prefix, ignoring case,
+     * up to PrefixTrie.LIMIT.
+     * 
+     * @param prefix
+     *            Prefix typed so far
+     * @return Matching names, sorted without regard to case
+     */
+    public static List<String> complete(String prefix) {
+        List<String> matches = new ArrayList<String>();
+        for (String name : names.tailSet(prefix)) {
+            if (matches.size() >= PrefixTrie.LIMIT
+                    || !StringUtil.startsWithIgnoreCase(name, prefix)) {
+                break;
+            }
+            matches.add(name);
+        }
+        return matches;
+    }
+    
+    /**
+     * Find an online player by name, ignoring case, as
+     * Server.getPlayerExact() does. Arguments too long to be a name are
+     * rejected without a lookup.
+     * 
+     * @param name
+     *            Name of the player
+     * @return Online player with that name, or null if there is none
+     */
+    public static Player get(String name) {
+        if (!isName(name)) {
+            return null;
+        }
+        return players.get(name.toLowerCase(Locale.ENGLISH));
+    }
+    
+    /**
+     * Check whether a string is short enough to be the name of a player. Any
+     * characters are allowed, since proxies and offline-mode servers may give
+     * players names that Minecraft itself would not; whether a player has the
+     * name is left to the index.
+     * 
+     * @param name
+     *            String to check
+     * @return Whether the string may name a player
+     */
+    public static boolean isName(String name) {
+        int length = name.length();
+        return (length > 0 && length <= MAX_LENGTH);
+    }
+    
+    /**
+     * @param player
+     *            Player who has left
+     */
+    public static void remove(Player player) {
+        names.remove(player.getName());
+        players.remove(player.getName().toLowerCase(Locale.ENGLISH));
+    }
+    
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.UUID;
+
+import net.easymfne.soundcheck.Statistics.Counter;
+
+import org.bukkit.block.Block;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Limits how often each player and each command block may use the play
+ * commands, with a separate set of token buckets for every command. Players
+ * are keyed by UUID and command blocks by world and position; the console is
+ * never limited.
+ * 
+ * @author Eric Hildebrand
+ */
+public class RateLimiter {
+    
+    /**
+     * Commands that are rate limited.
+     */
+    public enum Target {
+        PLAYSOUND, PLAYFX, PLAYEFX, SEQUENCE;
+        
+        /**
+         * @return Name of the command and its configuration section
+         */
+        public String getName() {
+            return name().toLowerCase();
+        }
+    }
+    
+    private final boolean enabled;
+    private final TokenBuckets[] buckets;
+    
+    /**
+     * Create a disabled RateLimiter, which allows everything.
+     */
+    public RateLimiter() {
+        this.enabled = false;
+        this.buckets = new TokenBuckets[Target.values().length];
+    }
+    
+    /**
+     * Create an enabled RateLimiter using the given bucket sizes and refill
+     * rates, indexed by Target ordinal.
+     * 
+     * @param bursts
+     *            Most uses a sender may save up, per command
+     * @param perSecond
+     *            Uses regained per second, per command
+     */
+    public RateLimiter(double[] bursts, double[] perSecond) {
+        this.enabled = true;
+        this.buckets = new TokenBuckets[Target.values().length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new TokenBuckets(bursts[i], perSecond[i]);
+        }
+    }
+    
+    /**
+     * @param target
+     *            Command
+     * @return Buckets for the command, or null when disabled
+     */
+    public TokenBuckets getBuckets(Target target) {
+        return buckets[target.ordinal()];
+    }
+    
+    /**
+     * Work out the bucket key for a command sender.
+     * 
+     * @param sender
+     *            Command sender
+     * @return Key, or 0 if the sender is never limited
+     */
+    private static long getKey(CommandSender sender) {
+        if (sender instanceof Player) {
+            UUID id = ((Player) sender).getUniqueId();
+            return mix(id.getMostSignificantBits())
+                    ^ id.getLeastSignificantBits();
+        }
+        if (sender instanceof BlockCommandSender) {
+            Block block = ((BlockCommandSender) sender).getBlock();
+            UUID world = block.getWorld().getUID();
+            long position = ((long) (block.getX() & 0x3FFFFFF) << 38)
+                    | ((long) (block.getZ() & 0x3FFFFFF) << 12)
+                    | (block.getY() & 0xFFF);
+            return mix(world.getMostSignificantBits()
+                    ^ world.getLeastSignificantBits())
+                    ^ position;
+        }
+        return 0L;
+    }
+    
+    /**
+     * @return Whether any limits are applied
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Scramble the bits of a long so that similar values differ widely.
+     * 
+     * @param value
+     *            Value
+     * @return Mixed value
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        return value;
+    }
+    
+    /**
+     * Use up one of a sender's uses of a command, if they have any left.
+     * 
+     * @param target
+     *            Command being used
+     * @param sender
+     *            Command sender
+     * @return Whether the sender may use the command now
+     */
+    public boolean tryAcquire(Target target, CommandSender sender) {
+        if (!enabled) {
+            return true;
+        }
+        long key = getKey(sender);
+        if (key == 0L) {
+            return true;
+        }
+        if (buckets[target.ordinal()].tryAcquire(key, System.nanoTime())) {
+            return true;
+        }
+        Statistics.increment(Counter.THROTTLED);
+        return false;
+    }
+    
+}
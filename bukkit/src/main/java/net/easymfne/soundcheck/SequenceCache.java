@@ -0,0 +1,454 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.easymfne.soundcheck.datatype.Frame;
+import net.easymfne.soundcheck.datatype.PlayableEffect;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+import net.easymfne.soundcheck.datatype.Sequence;
+
+import org.bukkit.Effect;
+import org.bukkit.Sound;
+
+/**
+ * Binary file of compiled sequences, so that a sequence whose source has not
+ * changed since it was last compiled can be read back without parsing its
+ * YAML. The file is memory-mapped and indexed when it is loaded, and each
+ * entry is keyed by a hash of the source it was compiled from. A cache file
+ * that is unreadable, of another version, or fails its checksum is ignored
+ * and later replaced. All methods are synchronized, since configuration
+ * snapshots compile and look up sequences off the main thread.
+ * 
+ * A mapped file cannot be replaced on every platform, and stays mapped until
+ * its buffer is collected, so each save writes a new generation of the file
+ * (the cache file's name followed by a number) rather than overwriting the
+ * mapped one. The newest generation is the one loaded, and older ones are
+ * deleted once they can be.
+ * 
+ * The file is laid out as: magic, version, and entry count (ints); the
+ * entries; and a checksum of everything before it (long). Each entry is its
+ * name, its source hash (long), the length of its frames (int), and its
+ * frames. Each frame is its time (int) and flags (byte), followed by a sound
+ * name, volume, and pitch if flag 1 is set, and by an effect name, data, and
+ * radius if flag 2 is set. Names are UTF-8 preceded by their length (short).
+ * 
+ * @author Eric Hildebrand
+ */
+public class SequenceCache {
+    
+    /**
+     * Where an entry is in the mapped file.
+     */
+    private static class Slot {
+        private final long hash;
+        private final int start, frames, end;
+        
+        private Slot(long hash, int start, int frames, int end) {
+            this.hash = hash;
+            this.start = start;
+            this.frames = frames;
+            this.end = end;
+        }
+    }
+    
+    /**
+     * A sequence compiled since the file was loaded.
+     */
+    private static class Pending {
+        private final long hash;
+        private final Sequence sequence;
+        
+        private Pending(long hash, Sequence sequence) {
+            this.hash = hash;
+            this.sequence = sequence;
+        }
+    }
+    
+    /* "SCSQ" */
+    private static final int MAGIC = 0x53435351;
+    private static final int VERSION = 1;
+    
+    private static final int FLAG_SOUND = 1;
+    private static final int FLAG_EFFECT = 2;
+    
+    /**
+     * @param buffer
+     *            Buffer positioned at a name
+     * @return Name read from the buffer
+     */
+    private static String readName(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * @param out
+     *            Stream to write to
+     * @param name
+     *            Name to write
+     * @throws IOException
+     */
+    private static void writeName(DataOutputStream out, String name)
+            throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    private final File file;
+    private int generation = 0;
+    private ByteBuffer buffer = null;
+    private final Map<String, Slot> slots = new HashMap<String, Slot>();
+    private final Map<String, Pending> pending =
+            new LinkedHashMap<String, Pending>();
+    
+    /**
+     * @param file
+     *            Cache file, whose generations need not exist
+     */
+    public SequenceCache(File file) {
+        this.file = file;
+    }
+    
+    /**
+     * @return Generations of the cache file that exist, oldest first
+     */
+    private List<Integer> findGenerations() {
+        List<Integer> found = new ArrayList<Integer>();
+        File folder = file.getAbsoluteFile().getParentFile();
+        String[] names = (folder == null ? null : folder.list());
+        if (names == null) {
+            return found;
+        }
+        String prefix = file.getName() + ".";
+        for (String name : names) {
+            if (!name.startsWith(prefix)) {
+                continue;
+            }
+            try {
+                found.add(Integer.parseInt(name.substring(prefix.length())));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+        }
+        Collections.sort(found);
+        return found;
+    }
+    
+    /**
+     * @param generation
+     *            Generation number
+     * @return That generation of the cache file
+     */
+    private File getFile(int generation) {
+        return new File(file.getPath() + "." + generation);
+    }
+    
+    /**
+     * Read a cached sequence from the mapped file, interning its sounds and
+     * effects as parsing would.
+     * 
+     * @param name
+     *            Sequence name
+     * @param slot
+     *            Where its entry is
+     * @return Sequence, or null if its entry is damaged or names a sound or
+     *         effect that this server does not have
+     */
+    private Sequence decode(String name, Slot slot) {
+        ByteBuffer in = buffer.duplicate();
+        in.limit(slot.end);
+        in.position(slot.frames);
+        List<Frame> frames = new ArrayList<Frame>();
+        try {
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                int time = in.getInt();
+                int flags = in.get();
+                PlayableSound sound = null;
+                if ((flags & FLAG_SOUND) != 0) {
+                    sound = new PlayableSound(Sound.valueOf(readName(in)),
+                            in.getFloat(), in.getFloat()).intern();
+                }
+                PlayableEffect effect = null;
+                if ((flags & FLAG_EFFECT) != 0) {
+                    effect = new PlayableEffect(Effect.valueOf(readName(in)),
+                            in.getInt(), in.getInt()).intern();
+                }
+                frames.add(new Frame(time, sound, effect));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+        return new Sequence(name, frames);
+    }
+    
+    /**
+     * Write a compiled sequence as a cache entry.
+     * 
+     * @param out
+     *            Stream to write to
+     * @param name
+     *            Sequence name
+     * @param hash
+     *            Hash of its source
+     * @param sequence
+     *            Compiled sequence
+     * @throws IOException
+     */
+    private void encode(DataOutputStream out, String name, long hash,
+            Sequence sequence) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(bytes);
+        frames.writeInt(sequence.getFrameCount());
+        for (int i = 0; i < sequence.getFrameCount(); i++) {
+            Frame frame = sequence.getFrame(i);
+            PlayableSound sound = frame.getSound();
+            PlayableEffect effect = frame.getEffect();
+            frames.writeInt(frame.getTime());
+            frames.writeByte((sound != null ? FLAG_SOUND : 0)
+                    | (effect != null ? FLAG_EFFECT : 0));
+            if (sound != null) {
+                writeName(frames, sound.getSound().name());
+                frames.writeFloat(sound.getVolume());
+                frames.writeFloat(sound.getPitch());
+            }
+            if (effect != null) {
+                writeName(frames, effect.getEffect().name());
+                frames.writeInt(effect.getData());
+                frames.writeInt(effect.getRadius());
+            }
+        }
+        writeName(out, name);
+        out.writeLong(hash);
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+    
+    /**
+     * Find a cached sequence compiled from a source with the given hash.
+     * 
+     * @param name
+     *            Sequence name
+     * @param hash
+     *            Hash of its current source
+     * @return Cached sequence, or null if there is none for that source
+     */
+    public synchronized Sequence get(String name, long hash) {
+        Pending compiled = pending.get(name);
+        if (compiled != null) {
+            return (compiled.hash == hash ? compiled.sequence : null);
+        }
+        Slot slot = slots.get(name);
+        if (slot == null || slot.hash != hash) {
+            return null;
+        }
+        return decode(name, slot);
+    }
+    
+    /**
+     * @return Whether sequences have been compiled since the file was loaded
+     */
+    public synchronized boolean isDirty() {
+        return !pending.isEmpty();
+    }
+    
+    /**
+     * Map the newest generation of the cache file and index its entries,
+     * deleting any older generations. If there is none, the cache starts
+     * empty.
+     * 
+     * @throws IOException
+     *             if the file cannot be read or is not an intact cache of
+     *             this version, in which case the cache starts empty
+     */
+    public synchronized void load() throws IOException {
+        buffer = null;
+        slots.clear();
+        List<Integer> generations = findGenerations();
+        if (generations.isEmpty()) {
+            return;
+        }
+        generation = generations.get(generations.size() - 1);
+        for (int older : generations) {
+            if (older < generation) {
+                /* May fail while still mapped, and is retried next load */
+                getFile(older).delete();
+            }
+        }
+        RandomAccessFile raf = new RandomAccessFile(getFile(generation), "r");
+        ByteBuffer mapped;
+        try {
+            mapped = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+                    raf.length());
+        } finally {
+            raf.close();
+        }
+        try {
+            int checksumAt = mapped.limit() - 8;
+            if (checksumAt < 12 || mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a sequence cache");
+            }
+            if (mapped.getInt(4) != VERSION) {
+                throw new IOException("Cache version " + mapped.getInt(4)
+                        + " is not " + VERSION);
+            }
+            if (mapped.getLong(checksumAt) != ContentHash.update(
+                    ContentHash.INITIAL, mapped, 0, checksumAt)) {
+                throw new IOException("Checksum does not match");
+            }
+            ByteBuffer in = mapped.duplicate();
+            in.limit(checksumAt);
+            in.position(8);
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                int start = in.position();
+                String name = readName(in);
+                long hash = in.getLong();
+                int length = in.getInt();
+                int frames = in.position();
+                if (length < 0 || length > in.remaining()) {
+                    throw new IOException("Entry '" + name + "' is truncated");
+                }
+                in.position(frames + length);
+                slots.put(name, new Slot(hash, start, frames, frames + length));
+            }
+        } catch (BufferUnderflowException e) {
+            slots.clear();
+            throw new IOException("Cache is truncated");
+        } catch (IOException e) {
+            slots.clear();
+            throw e;
+        }
+        buffer = mapped;
+    }
+    
+    /**
+     * Remember a newly compiled sequence, to be written when the cache is
+     * saved.
+     * 
+     * @param name
+     *            Sequence name
+     * @param hash
+     *            Hash of its source
+     * @param sequence
+     *            Compiled sequence
+     */
+    public synchronized void put(String name, long hash, Sequence sequence) {
+        pending.put(name, new Pending(hash, sequence));
+    }
+    
+    /**
+     * Write the next generation of the cache file, keeping the entries of the
+     * given sequences, then load it in place of the current one. A failed
+     * save leaves the current file intact.
+     * 
+     * @param names
+     *            Names of the sequences that still exist
+     * @return Number of sequences written
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public synchronized int save(Collection<String> names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int count = 0;
+        for (String name : names) {
+            if (pending.containsKey(name) || slots.containsKey(name)) {
+                count++;
+            }
+        }
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(count);
+        for (String name : names) {
+            Pending compiled = pending.get(name);
+            Slot slot = slots.get(name);
+            if (compiled != null) {
+                encode(out, name, compiled.hash, compiled.sequence);
+            } else if (slot != null) {
+                byte[] entry = new byte[slot.end - slot.start];
+                ByteBuffer in = buffer.duplicate();
+                in.position(slot.start);
+                in.get(entry);
+                out.write(entry);
+            }
+        }
+        byte[] content = bytes.toByteArray();
+        File next = getFile(generation + 1);
+        File temp = new File(next.getPath() + ".tmp");
+        OutputStream stream = new FileOutputStream(temp);
+        try {
+            stream.write(content);
+            new DataOutputStream(stream).writeLong(ContentHash.update(
+                    ContentHash.INITIAL, content, 0, content.length));
+        } finally {
+            stream.close();
+        }
+        try {
+            Files.move(temp.toPath(), next.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), next.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        /* Drop the old mapping, so its file can be deleted once collected */
+        buffer = null;
+        slots.clear();
+        pending.clear();
+        load();
+        return count;
+    }
+    
+    /**
+     * @return Number of sequences in the cache
+     */
+    public synchronized int size() {
+        int size = slots.size();
+        for (String name : pending.keySet()) {
+            if (!slots.containsKey(name)) {
+                size++;
+            }
+        }
+        return size;
+    }
+    
+}
@@ -0,0 +1,440 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.easymfne.soundcheck.datatype.NameTable;
+import net.easymfne.soundcheck.datatype.PrefixTrie;
+import net.easymfne.soundcheck.datatype.Sequence;
+
+import org.bukkit.Effect;
+import org.bukkit.Sound;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * Sequences stored one per file in a directory, as '<name>.yml' holding the
+ * list of frames. Only the names are read when the library is built, and
+ * each sequence is compiled the first time it is requested and then kept in
+ * a bounded, least-recently-used cache. A file that has not changed since it
+ * was last compiled is read back from the SequenceCache instead of being
+ * parsed again. Must only be used on the main thread once it has been built.
+ * 
+ * load() is the only way a file is compiled: a sequence that is not cached is
+ * compiled off the main thread and handed over on a later tick. get() and
+ * getError() only return what is already cached, so they never block.
+ * 
+ * @author Eric Hildebrand
+ */
+public class SequenceLibrary {
+    
+    /**
+     * Receives a sequence loaded by load(), on the main thread.
+     */
+    public interface Callback {
+        
+        /**
+         * @param sequence
+         *            Compiled sequence, or null if it is unknown or failed to
+         *            compile
+         * @param error
+         *            Compilation error, or null if there was none
+         */
+        public void compiled(Sequence sequence, String error);
+        
+    }
+    
+    /**
+     * Outcome of compiling one file: a sequence or an error message.
+     */
+    private static class Compiled {
+        private final Sequence sequence;
+        private final String error;
+        
+        private Compiled(Sequence sequence, String error) {
+            this.sequence = sequence;
+            this.error = error;
+        }
+    }
+    
+    /* Extension of sequence files */
+    private static final String EXTENSION = ".yml";
+    
+    /**
+     * @param file
+     *            Name of a file in the directory
+     * @return Name of the sequence in the file, or null if it is not a
+     *         sequence file
+     */
+    public static String getName(String file) {
+        if (file.length() <= EXTENSION.length() || !file.endsWith(EXTENSION)) {
+            return null;
+        }
+        return file.substring(0, file.length() - EXTENSION.length());
+    }
+    
+    /**
+     * Add the aliases of a table to a hash, because a sequence compiled with
+     * different aliases may have different sounds or effects.
+     * 
+     * @param hash
+     *            Hash so far
+     * @param table
+     *            Table of names
+     * @return Updated hash
+     */
+    private static long hashAliases(long hash, NameTable<?> table) {
+        List<String> aliases = new ArrayList<String>(table.getAliases());
+        Collections.sort(aliases);
+        for (String alias : aliases) {
+            hash = ContentHash.update(hash, alias);
+            hash = ContentHash.update(hash, table.get(alias).name());
+        }
+        return ContentHash.update(hash, table.getNames().size());
+    }
+    
+    /**
+     * Parse the content of a sequence file.
+     * 
+     * @param source
+     *            Content of the file
+     * @return Parsed YAML, which should be a list of frames
+     * @throws YAMLException
+     *             if the content is not valid YAML
+     */
+    static Object parse(byte[] source) throws YAMLException {
+        return new Yaml().load(new String(source, StandardCharsets.UTF_8));
+    }
+    
+    private final File directory;
+    private final NameTable<Sound> soundNames;
+    private final NameTable<Effect> effectNames;
+    private final SequenceCache precompiled;
+    private final long namesHash;
+    private final Set<String> names = new HashSet<String>();
+    private final Map<String, Compiled> cache;
+    private final Map<String, List<Callback>> loading =
+            new HashMap<String, List<Callback>>();
+    private final int capacity;
+    private PrefixTrie trie = null;
+    
+    /**
+     * Index the names of the sequence files in a directory, without reading
+     * them. Touches no shared state, so a library can be built off the main
+     * thread.
+     * 
+     * @param directory
+     *            Directory of sequence files, which need not exist
+     * @param capacity
+     *            Most compiled sequences to keep, or 0 to compile a sequence
+     *            each time it is requested
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     * @param precompiled
+     *            Cache of sequences compiled in earlier runs, may be null
+     */
+    public SequenceLibrary(File directory, final int capacity,
+            NameTable<Sound> soundNames, NameTable<Effect> effectNames,
+            SequenceCache precompiled) {
+        this.directory = directory;
+        this.capacity = capacity;
+        this.soundNames = soundNames;
+        this.effectNames = effectNames;
+        this.precompiled = precompiled;
+        this.namesHash = hashAliases(hashAliases(ContentHash.INITIAL,
+                soundNames), effectNames);
+        this.cache = new LinkedHashMap<String, Compiled>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, Compiled> eldest) {
+                return size() > capacity;
+            }
+        };
+        String[] files = directory.list();
+        if (files != null) {
+            for (String file : files) {
+                String name = getName(file);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Read and compile a sequence file, or read it from the cache of
+     * precompiled sequences if its content has not changed since it was
+     * cached.
+     * 
+     * @param name
+     *            Sequence name
+     * @return Compiled sequence or error
+     */
+    @SuppressWarnings("unchecked")
+    private Compiled compile(String name) {
+        File file = new File(directory, name + EXTENSION);
+        byte[] source;
+        try {
+            source = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            return new Compiled(null, "Could not read " + file.getName()
+                    + ": " + e.getMessage());
+        }
+        long hash = ContentHash.update(namesHash, source, 0, source.length);
+        if (precompiled != null) {
+            Sequence sequence = precompiled.get(name, hash);
+            if (sequence != null) {
+                return new Compiled(sequence, null);
+            }
+        }
+        Object frames;
+        try {
+            frames = parse(source);
+        } catch (YAMLException e) {
+            return new Compiled(null, "Invalid YAML in " + file.getName()
+                    + ": " + e.getMessage());
+        }
+        if (frames != null && !(frames instanceof List)) {
+            return new Compiled(null, "Invalid frame data");
+        }
+        Map<String, Sequence> sequences = new HashMap<String, Sequence>(2);
+        Map<String, String> errors = new HashMap<String, String>(2);
+        try {
+            SequenceRegistry.compile(name, (List<Map<?, ?>>) frames,
+                    soundNames, effectNames, sequences, errors);
+        } catch (RuntimeException e) {
+            return new Compiled(null, "Could not compile " + file.getName()
+                    + ": " + e);
+        }
+        Sequence sequence = sequences.get(name);
+        if (sequence != null && precompiled != null) {
+            precompiled.put(name, hash, sequence);
+        }
+        return new Compiled(sequence, errors.get(name));
+    }
+    
+    /**
+     * @param name
+     *            Sequence name
+     * @return Whether the library has a file for the sequence
+     */
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+    
+    /**
+     * Cache a sequence compiled by load() and pass it to every callback that
+     * was waiting for it. Runs on the main thread.
+     * 
+     * @param name
+     *            Sequence name
+     * @param waiting
+     *            Callbacks waiting for the sequence
+     * @param compiled
+     *            Compiled sequence or error
+     */
+    private void finishLoad(String name, List<Callback> waiting,
+            Compiled compiled) {
+        /* Not cached if the file changed while it was being compiled */
+        if (loading.get(name) == waiting) {
+            loading.remove(name);
+            if (capacity > 0) {
+                cache.put(name, compiled);
+            }
+        }
+        for (Callback callback : waiting) {
+            callback.compiled(compiled.sequence, compiled.error);
+        }
+    }
+    
+    /**
+     * Find a sequence that has already been compiled. A sequence that is not
+     * cached must be compiled with load() first.
+     * 
+     * @param name
+     *            Sequence name
+     * @return Compiled sequence, or null if it is unknown, not cached, or
+     *         failed to compile
+     */
+    public Sequence get(String name) {
+        Compiled compiled = getCompiled(name);
+        return (compiled == null ? null : compiled.sequence);
+    }
+    
+    /**
+     * @return Number of compiled sequences currently cached
+     */
+    public int getCachedCount() {
+        return cache.size();
+    }
+    
+    /**
+     * Find the cached outcome of compiling a sequence, without compiling it.
+     * 
+     * @param name
+     *            Sequence name
+     * @return Compiled sequence or error, or null if the sequence is unknown
+     *         or not cached
+     */
+    private Compiled getCompiled(String name) {
+        return (names.contains(name) ? cache.get(name) : null);
+    }
+    
+    /**
+     * @return Directory of sequence files
+     */
+    public File getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * @param name
+     *            Sequence name
+     * @return Compilation error for the sequence, or null if there was none
+     *         or it is not cached
+     */
+    public String getError(String name) {
+        Compiled compiled = getCompiled(name);
+        return (compiled == null ? null : compiled.error);
+    }
+    
+    /**
+     * @return Names of every sequence in the library, in no particular order
+     */
+    public Collection<String> getNames() {
+        return names;
+    }
+    
+    /**
+     * @return Trie of the names of every sequence in the library, for tab
+     *         completion
+     */
+    public PrefixTrie getPrefixTrie() {
+        if (trie == null) {
+            trie = new PrefixTrie(names);
+        }
+        return trie;
+    }
+    
+    /**
+     * @param name
+     *            Sequence name
+     * @return Whether the sequence can be found without compiling it, as it
+     *         is either cached or not in the library
+     */
+    public boolean isLoaded(String name) {
+        return !names.contains(name) || cache.containsKey(name);
+    }
+    
+    /**
+     * Find a sequence and pass it to a callback. A sequence that is cached is
+     * passed at once. Otherwise its file is read and compiled off the main
+     * thread, and it is passed on a later tick, unless the plugin has been
+     * disabled by then. Requests for a sequence that is already being
+     * compiled share its result.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin, which runs the compilation
+     * @param name
+     *            Sequence name
+     * @param callback
+     *            Receives the sequence
+     */
+    public void load(final Soundcheck plugin, final String name,
+            Callback callback) {
+        if (isLoaded(name)) {
+            Compiled compiled = getCompiled(name);
+            callback.compiled(compiled == null ? null : compiled.sequence,
+                    compiled == null ? null : compiled.error);
+            return;
+        }
+        List<Callback> pending = loading.get(name);
+        if (pending != null) {
+            pending.add(callback);
+            return;
+        }
+        final List<Callback> waiting = new ArrayList<Callback>(2);
+        waiting.add(callback);
+        loading.put(name, waiting);
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        final Compiled compiled = compile(name);
+                        if (!plugin.isEnabled()) {
+                            return;
+                        }
+                        plugin.getServer().getScheduler()
+                                .runTask(plugin, new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        finishLoad(name, waiting, compiled);
+                                    }
+                                });
+                    }
+                });
+    }
+    
+    /**
+     * @return Number of sequences in the library
+     */
+    public int size() {
+        return names.size();
+    }
+    
+    /**
+     * Record that sequence files have been created, changed, or deleted, so
+     * they are compiled again when next requested.
+     * 
+     * @param present
+     *            Names of sequences whose files now exist
+     * @param absent
+     *            Names of sequences whose files no longer exist
+     */
+    public void update(Collection<String> present, Collection<String> absent) {
+        for (String name : present) {
+            cache.remove(name);
+            loading.remove(name);
+            if (names.add(name)) {
+                trie = null;
+            }
+        }
+        for (String name : absent) {
+            cache.remove(name);
+            loading.remove(name);
+            if (names.remove(name)) {
+                trie = null;
+            }
+        }
+    }
+    
+}
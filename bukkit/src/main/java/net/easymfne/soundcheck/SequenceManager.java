@@ -0,0 +1,179 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.Collection;
+
+import net.easymfne.soundcheck.datatype.Sequence;
+import net.easymfne.soundcheck.engine.Clock;
+import net.easymfne.soundcheck.engine.Cue;
+import net.easymfne.soundcheck.engine.Engine;
+
+import org.bukkit.Location;
+
+/**
+ * This class is used for playing sequences. Playbacks are run by an Engine
+ * from the core, ticked by a FramePlayer on the server's scheduler and played
+ * through an EmitterSink. The repeating task only runs while at least one
+ * playback is active, and new playbacks are admitted according to the
+ * configured PlaybackLimits.
+ * 
+ * @author Eric Hildebrand
+ */
+public class SequenceManager {
+    
+    private static Engine<Sequence, Location> engine = null;
+    
+    /**
+     * Stop all playbacks and the repeating task, and release the engine.
+     */
+    public static void close() {
+        if (engine != null) {
+            engine.close();
+            engine = null;
+        }
+    }
+    
+    /**
+     * @param id
+     *            Playback ID
+     * @return Active or queued playback with the ID, or null if there is none
+     */
+    public static Playback get(int id) {
+        return (Playback) engine.get(id);
+    }
+    
+    /**
+     * @return Number of sequences currently playing
+     */
+    public static int getActiveCount() {
+        return engine.getActiveCount();
+    }
+    
+    /**
+     * @return Engine that plays the sequences
+     */
+    public static Engine<Sequence, Location> getEngine() {
+        return engine;
+    }
+    
+    /**
+     * @return Current playback limits
+     */
+    public static PlaybackLimits getLimits() {
+        return engine.getLimits();
+    }
+    
+    /**
+     * @return Monitor used to degrade frames under load
+     */
+    public static LoadMonitor getLoadMonitor() {
+        return engine.getLoadMonitor();
+    }
+    
+    /**
+     * @return Read-only view of all active playbacks, oldest first
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static Collection<Playback> getPlaybacks() {
+        /* Every cue the engine creates is a Playback */
+        return (Collection) engine.getCues();
+    }
+    
+    /**
+     * @return Number of sequences waiting for room under the limits
+     */
+    public static int getQueuedCount() {
+        return engine.getQueuedCount();
+    }
+    
+    /**
+     * Create the engine, ticked by the Soundcheck plugin's scheduler.
+     * 
+     * @param plugin
+     *            Soundcheck plugin
+     */
+    public static void init(Soundcheck plugin) {
+        close();
+        engine = newEngine(new FramePlayer(plugin));
+    }
+    
+    /**
+     * Build an engine that plays sequences through the Emitter, creating a
+     * Playback for each one.
+     * 
+     * @param clock
+     *            Clock that drives the engine
+     * @return New engine
+     */
+    public static Engine<Sequence, Location> newEngine(Clock clock) {
+        return new Engine<Sequence, Location>(clock, new EmitterSink()) {
+            @Override
+            protected Cue<Sequence, Location> createCue(int id,
+                    Sequence sequence, Location location) {
+                return new Playback(this, id, sequence, location);
+            }
+        };
+    }
+    
+    /**
+     * Start playing a sequence at the given location. Its frames are played
+     * by the engine's repeating task, which is started if it is not running.
+     * If the playback would exceed a limit, it is dropped, queued, or started
+     * in place of the oldest conflicting playback, as the limits' policy
+     * dictates.
+     * 
+     * @param sequence
+     *            Sequence to schedule
+     * @param location
+     *            Location to play sequence
+     * @return Handle for controlling the playback, or null if it was dropped
+     */
+    public static Playback queueSequence(Sequence sequence, Location location) {
+        return (Playback) engine.play(sequence, location);
+    }
+    
+    /**
+     * Replace the limits used to admit new playbacks. Playbacks that are
+     * already active are not affected.
+     * 
+     * @param limits
+     *            New playback limits
+     */
+    public static void setLimits(PlaybackLimits limits) {
+        engine.setLimits(limits);
+    }
+    
+    /**
+     * Cancel every active and queued playback.
+     * 
+     * @return Number of playbacks cancelled
+     */
+    public static int stopAll() {
+        return engine.stopAll();
+    }
+    
+    /**
+     * Cancel every active and queued playback of a sequence.
+     * 
+     * @param name
+     *            Sequence name
+     * @return Number of playbacks cancelled
+     */
+    public static int stopAll(String name) {
+        return engine.stopAll(name);
+    }
+    
+}
@@ -0,0 +1,338 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.easymfne.soundcheck.datatype.NameTable;
+import net.easymfne.soundcheck.datatype.PlayableEffect;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+import net.easymfne.soundcheck.datatype.PrefixTrie;
+import net.easymfne.soundcheck.datatype.Sequence;
+
+import org.bukkit.Effect;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Immutable snapshot of every sequence defined in the configuration, compiled
+ * once so that playing a sequence is a single lookup, backed by the
+ * SequenceLibrary of sequence files, which are compiled off the main thread
+ * by load() when first played. A sequence in the configuration hides a file
+ * of the same name. A new registry is built whenever the configuration is
+ * loaded or reloaded.
+ * 
+ * @author Eric Hildebrand
+ */
+public class SequenceRegistry {
+    
+    private final Map<String, Sequence> sequences;
+    private final Map<String, String> errors;
+    private final PrefixTrie trie;
+    private final SequenceLibrary library;
+    
+    /**
+     * Compile every sequence in the given configuration section, using the
+     * current tables of sound and effect names.
+     * 
+     * @param section
+     *            ConfigurationSection "sequence", may be null
+     */
+    public SequenceRegistry(ConfigurationSection section) {
+        this(section, PlayableSound.getNames(), PlayableEffect.getNames(),
+                null);
+    }
+    
+    /**
+     * Compile every sequence in the given configuration section. Sequences
+     * that fail to compile are left out, and their error messages are kept so
+     * they can be reported when the sequence is requested. Nothing shared is
+     * modified, so a registry may be compiled off the main thread.
+     * 
+     * @param section
+     *            ConfigurationSection "sequence", may be null
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     * @param library
+     *            Library of sequence files, may be null
+     */
+    public SequenceRegistry(ConfigurationSection section,
+            NameTable<Sound> soundNames, NameTable<Effect> effectNames,
+            SequenceLibrary library) {
+        Map<String, Sequence> sequences = new LinkedHashMap<String, Sequence>();
+        Map<String, String> errors = new LinkedHashMap<String, String>();
+        if (section != null) {
+            for (String name : section.getKeys(false)) {
+                compile(name, section.getMapList(name), soundNames,
+                        effectNames, sequences, errors);
+            }
+        }
+        this.sequences = Collections.unmodifiableMap(sequences);
+        this.errors = Collections.unmodifiableMap(errors);
+        this.trie = new PrefixTrie(sequences.keySet());
+        this.library = library;
+    }
+    
+    /**
+     * Wrap maps that have already been filled, without copying them.
+     * 
+     * @param sequences
+     *            Compiled sequences, keyed by name
+     * @param errors
+     *            Compilation errors, keyed by sequence name
+     * @param library
+     *            Library of sequence files, may be null
+     */
+    private SequenceRegistry(Map<String, Sequence> sequences,
+            Map<String, String> errors, SequenceLibrary library) {
+        this.sequences = Collections.unmodifiableMap(sequences);
+        this.errors = Collections.unmodifiableMap(errors);
+        this.trie = new PrefixTrie(sequences.keySet());
+        this.library = library;
+    }
+    
+    /**
+     * Compile one sequence, adding it to the map of sequences if it compiles
+     * and its error message to the map of errors if it does not.
+     * 
+     * @param name
+     *            Sequence name
+     * @param list
+     *            Frames of the sequence, as read from the configuration
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     * @param sequences
+     *            Map the compiled sequence is put into
+     * @param errors
+     *            Map the error message is put into
+     */
+    static void compile(String name, List<Map<?, ?>> list,
+            NameTable<Sound> soundNames, NameTable<Effect> effectNames,
+            Map<String, Sequence> sequences, Map<String, String> errors) {
+        try {
+            sequences.put(name,
+                    Sequence.parse(name, list, soundNames, effectNames));
+        } catch (NullPointerException e) {
+            errors.put(name, describe(list, soundNames, effectNames,
+                    "Missing or empty frame data"));
+        } catch (ClassCastException e) {
+            errors.put(name, describe(list, soundNames, effectNames,
+                    "Invalid frame data"));
+        } catch (IllegalArgumentException e) {
+            errors.put(name, describe(list, soundNames, effectNames,
+                    String.valueOf(e.getMessage())));
+        }
+    }
+    
+    /**
+     * Find the names of sequences beginning with a prefix, ignoring case, up
+     * to PrefixTrie.LIMIT. Sequence files are completed from the names in the
+     * library, without reading them.
+     * 
+     * @param prefix
+     *            Prefix typed so far
+     * @return Matching names, sorted without regard to case
+     */
+    public List<String> complete(String prefix) {
+        List<String> matches = trie.complete(prefix);
+        if (library == null || library.size() == 0) {
+            return matches;
+        }
+        for (String name : library.getPrefixTrie().complete(prefix)) {
+            if (!sequences.containsKey(name) && !errors.containsKey(name)) {
+                matches.add(name);
+            }
+        }
+        Collections.sort(matches, String.CASE_INSENSITIVE_ORDER);
+        return (matches.size() > PrefixTrie.LIMIT ? matches.subList(0,
+                PrefixTrie.LIMIT) : matches);
+    }
+    
+    /**
+     * Describe why a sequence failed to compile, naming the frame and field
+     * of its first problem if the SequenceValidator can find one.
+     * 
+     * @param list
+     *            Frames of the sequence, as read from the configuration
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     * @param fallback
+     *            Description to use if no problem is found
+     * @return Error message
+     */
+    private static String describe(List<Map<?, ?>> list,
+            NameTable<Sound> soundNames, NameTable<Effect> effectNames,
+            String fallback) {
+        List<String> problems = SequenceValidator.check(list, soundNames,
+                effectNames);
+        return (problems.isEmpty() ? fallback : problems.get(0));
+    }
+    
+    /**
+     * Find a sequence defined in the configuration, or a sequence file that
+     * the library has already compiled. Never compiles a file, so a sequence
+     * for which isLoaded() is false must be found with load() instead.
+     * 
+     * @param name
+     *            Sequence name
+     * @return Compiled sequence, or null if it is unknown, not loaded, or
+     *         failed to compile
+     */
+    public Sequence get(String name) {
+        Sequence sequence = sequences.get(name);
+        if (sequence == null && library != null && !errors.containsKey(name)) {
+            sequence = library.get(name);
+        }
+        return sequence;
+    }
+    
+    /**
+     * @param name
+     *            Sequence name
+     * @return Compilation error for the sequence, or null if there was none
+     *         or it is not loaded
+     */
+    public String getError(String name) {
+        String error = errors.get(name);
+        if (error == null && library != null && !sequences.containsKey(name)) {
+            error = library.getError(name);
+        }
+        return error;
+    }
+    
+    /**
+     * @return Compilation errors of the sequences defined in the
+     *         configuration, keyed by sequence name
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+    
+    /**
+     * @return Library of sequence files, or null if there is none
+     */
+    public SequenceLibrary getLibrary() {
+        return library;
+    }
+    
+    /**
+     * List the names of every sequence: those defined in the configuration,
+     * in order, followed by those in the library, sorted without regard to
+     * case. Sequence files are listed without reading them.
+     * 
+     * @return Names of all sequences
+     */
+    public List<String> getNames() {
+        List<String> names = new ArrayList<String>(sequences.keySet());
+        if (library != null) {
+            List<String> files = new ArrayList<String>(library.size());
+            for (String name : library.getNames()) {
+                if (!sequences.containsKey(name) && !errors.containsKey(name)) {
+                    files.add(name);
+                }
+            }
+            Collections.sort(files, String.CASE_INSENSITIVE_ORDER);
+            names.addAll(files);
+        }
+        return names;
+    }
+    
+    /**
+     * @param name
+     *            Sequence name
+     * @return Whether the sequence can be found without compiling it
+     */
+    public boolean isLoaded(String name) {
+        return library == null || sequences.containsKey(name)
+                || errors.containsKey(name) || library.isLoaded(name);
+    }
+    
+    /**
+     * Find a sequence and pass it to a callback, at once if it is defined in
+     * the configuration, or once the library has compiled its file.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin
+     * @param name
+     *            Sequence name
+     * @param callback
+     *            Receives the sequence
+     * @see SequenceLibrary#load(Soundcheck, String, SequenceLibrary.Callback)
+     */
+    public void load(Soundcheck plugin, String name,
+            SequenceLibrary.Callback callback) {
+        if (library == null || sequences.containsKey(name)
+                || errors.containsKey(name)) {
+            callback.compiled(sequences.get(name), errors.get(name));
+        } else {
+            library.load(plugin, name, callback);
+        }
+    }
+    
+    /**
+     * @return Number of successfully compiled sequences defined in the
+     *         configuration
+     */
+    public int size() {
+        return sequences.size();
+    }
+    
+    /**
+     * Build a registry that differs from this one only in the given
+     * sequences. A changed sequence that failed to compile keeps its last
+     * compiled version if it has one, and otherwise records its error.
+     * 
+     * @param changed
+     *            Newly compiled sequences, keyed by name
+     * @param failed
+     *            Compilation errors of changed sequences, keyed by name
+     * @param removed
+     *            Names of sequences that no longer exist
+     * @return Updated registry
+     */
+    public SequenceRegistry update(Map<String, Sequence> changed,
+            Map<String, String> failed, Collection<String> removed) {
+        Map<String, Sequence> sequences = new LinkedHashMap<String, Sequence>(
+                this.sequences);
+        Map<String, String> errors = new LinkedHashMap<String, String>(
+                this.errors);
+        for (String name : removed) {
+            sequences.remove(name);
+            errors.remove(name);
+        }
+        for (Map.Entry<String, Sequence> entry : changed.entrySet()) {
+            sequences.put(entry.getKey(), entry.getValue());
+            errors.remove(entry.getKey());
+        }
+        for (Map.Entry<String, String> entry : failed.entrySet()) {
+            if (!sequences.containsKey(entry.getKey())) {
+                errors.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new SequenceRegistry(sequences, errors, library);
+    }
+    
+}
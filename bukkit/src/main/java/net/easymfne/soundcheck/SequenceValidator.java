@@ -0,0 +1,328 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import net.easymfne.soundcheck.datatype.NameTable;
+import net.easymfne.soundcheck.datatype.PlayableEffect;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+
+import org.bukkit.Effect;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * Checks sequence definitions for every problem they have, rather than
+ * stopping at the first one as compiling does. Each problem names the frame
+ * and field it was found in. A whole library is checked in parallel on a
+ * fork-join pool, reading sequence files on the pool's threads, so a check
+ * should be started off the main thread.
+ * 
+ * @author Eric Hildebrand
+ */
+public class SequenceValidator {
+    
+    /**
+     * One sequence to check: either frames from 'config.yml', or a file.
+     */
+    private static class Source {
+        private final String label;
+        private final Object frames;
+        private final File file;
+        
+        private Source(String label, Object frames, File file) {
+            this.label = label;
+            this.frames = frames;
+            this.file = file;
+        }
+    }
+    
+    /**
+     * Checks a range of the sources, splitting it in half until it is small.
+     */
+    private class Task extends RecursiveTask<Map<String, List<String>>> {
+        private static final long serialVersionUID = 1L;
+        private final int start, end;
+        
+        private Task(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        protected Map<String, List<String>> compute() {
+            if (end - start <= THRESHOLD) {
+                Map<String, List<String>> problems =
+                        new TreeMap<String, List<String>>();
+                for (int i = start; i < end; i++) {
+                    List<String> found = check(sources.get(i));
+                    if (!found.isEmpty()) {
+                        problems.put(sources.get(i).label, found);
+                    }
+                }
+                return problems;
+            }
+            int middle = (start + end) >>> 1;
+            Task left = new Task(start, middle);
+            left.fork();
+            Map<String, List<String>> problems = new Task(middle, end)
+                    .compute();
+            problems.putAll(left.join());
+            return problems;
+        }
+    }
+    
+    /* Most sequences checked by one task without splitting */
+    private static final int THRESHOLD = 8;
+    
+    /* Keys a frame may have */
+    private static final List<String> KEYS = Collections.unmodifiableList(
+            Arrays.asList("time", "sound", "effect"));
+    
+    /**
+     * Find every problem with the frames of one sequence.
+     * 
+     * @param frames
+     *            Frames as read from YAML, which should be a list of maps
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     * @return Descriptions of the problems, empty if there are none
+     */
+    public static List<String> check(Object frames,
+            NameTable<Sound> soundNames, NameTable<Effect> effectNames) {
+        List<String> problems = new ArrayList<String>();
+        if (!(frames instanceof List) || ((List<?>) frames).isEmpty()) {
+            problems.add(frames == null || frames instanceof List
+                    ? "no frames" : "not a list of frames");
+            return problems;
+        }
+        List<?> list = (List<?>) frames;
+        int previous = Integer.MIN_VALUE;
+        for (int i = 0; i < list.size(); i++) {
+            String where = "frame " + (i + 1);
+            if (!(list.get(i) instanceof Map)) {
+                problems.add(where
+                        + ": not a map of time, sound, and effect");
+                continue;
+            }
+            Map<?, ?> frame = (Map<?, ?>) list.get(i);
+            for (Object key : frame.keySet()) {
+                if (!KEYS.contains(key)) {
+                    problems.add(where + ": unknown key '" + key + "'");
+                }
+            }
+            Object time = frame.get("time");
+            if (time == null) {
+                problems.add(where + ", time: missing");
+            } else if (!(time instanceof Integer)) {
+                problems.add(where + ", time: '" + time
+                        + "' is not a whole number of ticks");
+            } else if ((Integer) time < 0) {
+                problems.add(where + ", time: " + time + " is negative");
+            } else {
+                if ((Integer) time < previous) {
+                    problems.add(where + ", time: " + time
+                            + " is before the previous frame's " + previous);
+                }
+                previous = (Integer) time;
+            }
+            Object sound = frame.get("sound");
+            Object effect = frame.get("effect");
+            if (sound == null && effect == null) {
+                problems.add(where + ": neither a sound nor an effect");
+            }
+            if (sound != null) {
+                checkSound(problems, where, sound, soundNames);
+            }
+            if (effect != null) {
+                checkEffect(problems, where, effect, effectNames);
+            }
+        }
+        return problems;
+    }
+    
+    /**
+     * Check the effect of a frame.
+     * 
+     * @param problems
+     *            List problems are added to
+     * @param where
+     *            Frame being checked
+     * @param value
+     *            Value of the frame's effect
+     * @param effectNames
+     *            Table of effect names
+     */
+    private static void checkEffect(List<String> problems, String where,
+            Object value, NameTable<Effect> effectNames) {
+        String effect = String.valueOf(value);
+        if (!(value instanceof String) || !PlayableEffect.matches(effect)) {
+            problems.add(where + ", effect: '" + effect
+                    + "' is not in the format NAME:data:radius");
+            return;
+        }
+        try {
+            if (PlayableEffect.parse(effect, effectNames) == null) {
+                problems.add(where + ", effect: unknown effect '"
+                        + effect.substring(0, effect.indexOf(':')) + "'");
+            }
+        } catch (NumberFormatException e) {
+            problems.add(where + ", effect: data or radius of '" + effect
+                    + "' is too large");
+        }
+    }
+    
+    /**
+     * Check the sound of a frame.
+     * 
+     * @param problems
+     *            List problems are added to
+     * @param where
+     *            Frame being checked
+     * @param value
+     *            Value of the frame's sound
+     * @param soundNames
+     *            Table of sound names
+     */
+    private static void checkSound(List<String> problems, String where,
+            Object value, NameTable<Sound> soundNames) {
+        String sound = String.valueOf(value);
+        if (!(value instanceof String) || !PlayableSound.matches(sound)) {
+            problems.add(where + ", sound: '" + sound
+                    + "' is not in the format NAME:volume:pitch");
+        } else if (PlayableSound.parse(sound, soundNames) == null) {
+            problems.add(where + ", sound: unknown sound '"
+                    + sound.substring(0, sound.indexOf(':')) + "'");
+        }
+    }
+    
+    private final NameTable<Sound> soundNames;
+    private final NameTable<Effect> effectNames;
+    private final List<Source> sources = new ArrayList<Source>();
+    
+    /**
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     */
+    public SequenceValidator(NameTable<Sound> soundNames,
+            NameTable<Effect> effectNames) {
+        this.soundNames = soundNames;
+        this.effectNames = effectNames;
+    }
+    
+    /**
+     * Add every sequence file in a directory to be checked. The files are
+     * not read until the check is run.
+     * 
+     * @param directory
+     *            Directory of sequence files, which need not exist
+     */
+    public void addDirectory(File directory) {
+        String[] files = directory.list();
+        if (files == null) {
+            return;
+        }
+        for (String file : files) {
+            String name = SequenceLibrary.getName(file);
+            if (name != null) {
+                sources.add(new Source("'" + name + "' (" + directory.getName()
+                        + "/" + file + ")", null, new File(directory, file)));
+            }
+        }
+    }
+    
+    /**
+     * Add every sequence defined in a configuration section to be checked.
+     * 
+     * @param section
+     *            ConfigurationSection "sequence", may be null
+     */
+    public void addSection(ConfigurationSection section) {
+        if (section == null) {
+            return;
+        }
+        for (String name : section.getKeys(false)) {
+            sources.add(new Source("'" + name + "'", section.getList(name),
+                    null));
+        }
+    }
+    
+    /**
+     * Check one sequence, reading its file if it has one.
+     * 
+     * @param source
+     *            Sequence to check
+     * @return Descriptions of the problems, empty if there are none
+     */
+    private List<String> check(Source source) {
+        Object frames = source.frames;
+        if (source.file != null) {
+            try {
+                frames = SequenceLibrary.parse(Files.readAllBytes(source.file
+                        .toPath()));
+            } catch (IOException e) {
+                return Collections.singletonList("could not read file: "
+                        + e.getMessage());
+            } catch (YAMLException e) {
+                return Collections.singletonList("invalid YAML: "
+                        + e.getMessage());
+            }
+        }
+        return check(frames, soundNames, effectNames);
+    }
+    
+    /**
+     * @return Number of sequences to check
+     */
+    public int size() {
+        return sources.size();
+    }
+    
+    /**
+     * Check every sequence that was added, in parallel, and wait for the
+     * result.
+     * 
+     * @return Descriptions of the problems, keyed by sequence and sorted by
+     *         it, leaving out sequences without problems
+     */
+    public Map<String, List<String>> validate() {
+        if (sources.isEmpty()) {
+            return new TreeMap<String, List<String>>();
+        }
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            return pool.invoke(new Task(0, sources.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+}
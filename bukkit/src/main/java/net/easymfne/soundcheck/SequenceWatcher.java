@@ -0,0 +1,375 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import net.easymfne.soundcheck.datatype.PlayableEffect;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+import net.easymfne.soundcheck.datatype.Sequence;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Watches 'config.yml' for changes and recompiles only the sequences whose
+ * definitions changed, which are found by comparing a hash of each
+ * definition with its hash from the last time the file was read. The first
+ * hashes are taken from the configuration the live SequenceRegistry was
+ * compiled from, so an edit made while it was being compiled is not missed.
+ * Reading and compiling happen on the watcher's own thread, and the results
+ * are published into the live SequenceRegistry on the main thread. Other
+ * settings are only applied by a full reload. Files created, changed, or
+ * deleted in the 'sequences' folder are passed on to the SequenceLibrary,
+ * which compiles them again when they are next played. The folder is watched
+ * from when it is created, if it does not exist yet.
+ * 
+ * @author Eric Hildebrand
+ */
+public class SequenceWatcher implements Runnable {
+    
+    /* Time without further events before the file is read (in milliseconds) */
+    private static final long QUIET_TIME = 250L;
+    
+    /**
+     * Hash the definition of a sequence. Equal definitions read from the same
+     * file always have the same hash, because the YAML parser preserves the
+     * order of keys.
+     * 
+     * @param list
+     *            Frames of the sequence, as read from the configuration
+     * @return Hash of the definition
+     */
+    private static long hash(List<Map<?, ?>> list) {
+        return ContentHash.update(ContentHash.INITIAL, String.valueOf(list));
+    }
+    
+    /**
+     * Hash the definition of every sequence in a section.
+     * 
+     * @param section
+     *            ConfigurationSection "sequence", may be null
+     * @return Hash of each definition, keyed by sequence name
+     */
+    private static Map<String, Long> hashAll(ConfigurationSection section) {
+        Map<String, Long> hashes = new HashMap<String, Long>();
+        if (section != null) {
+            for (String name : section.getKeys(false)) {
+                hashes.put(name, hash(section.getMapList(name)));
+            }
+        }
+        return hashes;
+    }
+    
+    private final Soundcheck plugin;
+    private final File file;
+    private final File folder;
+    private final WatchService watchService;
+    private final WatchKey dataKey;
+    private WatchKey folderKey;
+    private final Map<String, Long> hashes = new HashMap<String, Long>();
+    private final Set<String> changedFiles = new HashSet<String>();
+    
+    /**
+     * Start watching the plugin's data folder, and its 'sequences' folder if
+     * there is one, on a new daemon thread.
+     * 
+     * @param plugin
+     *            The Soundcheck plugin
+     * @param sequences
+     *            ConfigurationSection "sequence" that the live registry was
+     *            compiled from, may be null
+     * @throws IOException
+     *             if the folders cannot be watched
+     */
+    public SequenceWatcher(Soundcheck plugin, ConfigurationSection sequences)
+            throws IOException {
+        this.plugin = plugin;
+        file = new File(plugin.getDataFolder(), "config.yml");
+        folder = new File(plugin.getDataFolder(), "sequences");
+        hashes.putAll(hashAll(sequences));
+        watchService = FileSystems.getDefault().newWatchService();
+        dataKey = plugin.getDataFolder().toPath().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        folderKey = (folder.isDirectory() ? watchFolder() : null);
+        Thread thread = new Thread(this, "Soundcheck sequence watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Read the file and publish every sequence whose definition has changed
+     * or been removed since it was last read.
+     */
+    private void check() {
+        ConfigurationSection section = read();
+        if (section == null) {
+            return;
+        }
+        Map<String, Long> current = new HashMap<String, Long>();
+        Map<String, Sequence> changed = new LinkedHashMap<String, Sequence>();
+        Map<String, String> failed = new LinkedHashMap<String, String>();
+        final List<String> removed = new ArrayList<String>();
+        synchronized (hashes) {
+            for (String name : section.getKeys(false)) {
+                List<Map<?, ?>> list = section.getMapList(name);
+                Long hash = hash(list);
+                current.put(name, hash);
+                if (!hash.equals(hashes.get(name))) {
+                    SequenceRegistry.compile(name, list,
+                            PlayableSound.getNames(),
+                            PlayableEffect.getNames(), changed, failed);
+                }
+            }
+            for (String name : hashes.keySet()) {
+                if (!current.containsKey(name)) {
+                    removed.add(name);
+                }
+            }
+            hashes.clear();
+            hashes.putAll(current);
+        }
+        if (changed.isEmpty() && failed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        final Map<String, Sequence> published = changed;
+        final Map<String, String> errors = failed;
+        runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                plugin.updateSequences(published, errors, removed);
+            }
+        });
+    }
+    
+    /**
+     * Stop watching. The watcher thread ends shortly afterwards.
+     */
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            plugin.fancyLog(Level.WARNING, "Failed to stop watching: "
+                    + e.getMessage());
+        }
+    }
+    
+    /**
+     * Find which sequence files still exist after changing, and pass them on
+     * to the library.
+     */
+    private void checkFiles() {
+        final List<String> present = new ArrayList<String>();
+        final List<String> absent = new ArrayList<String>();
+        for (String name : changedFiles) {
+            if (new File(folder, name + ".yml").isFile()) {
+                present.add(name);
+            } else {
+                absent.add(name);
+            }
+        }
+        changedFiles.clear();
+        runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                plugin.updateSequenceFiles(present, absent);
+            }
+        });
+    }
+    
+    /**
+     * Take the events of a key and reset it, remembering any sequence files
+     * that changed. Starts watching the 'sequences' folder when it is
+     * created, and stops when it is deleted.
+     * 
+     * @param key
+     *            Signalled key
+     * @return Whether any of the events were about 'config.yml'
+     */
+    private boolean drain(WatchKey key) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (!(context instanceof Path)) {
+                continue;
+            }
+            if (key == folderKey) {
+                String name = SequenceLibrary.getName(context.toString());
+                if (name != null) {
+                    changedFiles.add(name);
+                }
+            } else if (key != dataKey) {
+                continue;
+            } else if (file.getName().equals(context.toString())) {
+                found = true;
+            } else if (folderKey == null
+                    && folder.getName().equals(context.toString())
+                    && folder.isDirectory()) {
+                try {
+                    folderKey = watchFolder();
+                    /* Files may have been written before it was watched */
+                    String[] files = folder.list();
+                    for (int i = 0; files != null && i < files.length; i++) {
+                        String name = SequenceLibrary.getName(files[i]);
+                        if (name != null) {
+                            changedFiles.add(name);
+                        }
+                    }
+                } catch (IOException e) {
+                    log(Level.WARNING, "Could not watch the sequences "
+                            + "folder: " + e.getMessage());
+                }
+            }
+        }
+        if (!key.reset() && key == folderKey) {
+            folderKey = null;
+        }
+        return found;
+    }
+    
+    /**
+     * Log a message from the main thread.
+     * 
+     * @param level
+     *            Level at which the message should be logged
+     * @param message
+     *            The message to be logged
+     */
+    private void log(final Level level, final String message) {
+        runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                plugin.fancyLog(level, message);
+            }
+        });
+    }
+    
+    /**
+     * Read the "sequence" section of the file, with the same defaults as the
+     * live configuration.
+     * 
+     * @return Section of sequences, empty if there is none, or null if the
+     *         file could not be read
+     */
+    private ConfigurationSection read() {
+        YamlConfiguration config;
+        try {
+            config = ConfigSnapshot.read(plugin);
+        } catch (IOException e) {
+            log(Level.WARNING, "Could not read config.yml: " + e.getMessage());
+            return null;
+        } catch (InvalidConfigurationException e) {
+            log(Level.WARNING, "Invalid config.yml: " + e.getMessage());
+            return null;
+        }
+        ConfigurationSection section = config
+                .getConfigurationSection("sequence");
+        return (section != null ? section : config.createSection("sequence"));
+    }
+    
+    /**
+     * Check the file once, in case it changed after the live configuration
+     * was read, then again each time it changes, until the watcher is
+     * closed.
+     */
+    @Override
+    public void run() {
+        check();
+        try {
+            while (true) {
+                boolean changed = drain(watchService.take());
+                /* Editors often write a file in several steps */
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_TIME,
+                        TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(key);
+                }
+                if (changed) {
+                    check();
+                }
+                if (!changedFiles.isEmpty()) {
+                    checkFiles();
+                }
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (ClosedWatchServiceException e) {
+            return;
+        }
+    }
+    
+    /**
+     * Schedule a task on the main thread, unless the plugin has been
+     * disabled.
+     * 
+     * @param task
+     *            Task to run
+     */
+    private void runOnMainThread(Runnable task) {
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+    
+    /**
+     * Replace the hashes that changes are found against, when a reload has
+     * replaced the live registry.
+     * 
+     * @param sequences
+     *            ConfigurationSection "sequence" that the new registry was
+     *            compiled from, may be null
+     */
+    public void setBaseline(ConfigurationSection sequences) {
+        Map<String, Long> baseline = hashAll(sequences);
+        synchronized (hashes) {
+            hashes.clear();
+            hashes.putAll(baseline);
+        }
+    }
+    
+    /**
+     * Start watching the 'sequences' folder.
+     * 
+     * @return Key of the folder
+     * @throws IOException
+     *             if the folder cannot be watched
+     */
+    private WatchKey watchFolder() throws IOException {
+        return folder.toPath().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+    
+}
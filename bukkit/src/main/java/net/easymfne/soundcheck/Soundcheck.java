@@ -0,0 +1,645 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import net.easymfne.soundcheck.command.InvocationCache;
+import net.easymfne.soundcheck.command.MuteCommand;
+import net.easymfne.soundcheck.command.PlayEfxCommand;
+import net.easymfne.soundcheck.command.PlayFxCommand;
+import net.easymfne.soundcheck.command.PlaySoundCommand;
+import net.easymfne.soundcheck.command.SequenceCommand;
+// import net.easymfne.soundcheck.command.PlayefxCommand;
+// import net.easymfne.soundcheck.command.PlayfxCommand;
+// import net.easymfne.soundcheck.command.PlaysoundCommand;
+// import net.easymfne.soundcheck.command.SequenceCommand;
+import net.easymfne.soundcheck.command.SoundcheckCommand;
+import net.easymfne.soundcheck.datatype.PlayableEffect;
+import net.easymfne.soundcheck.datatype.PlayableEntityEffect;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+import net.easymfne.soundcheck.datatype.Sequence;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Effect;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.mcstats.MetricsLite;
+
+/**
+ * Main plugin class, responsible for its own setup, logging, reloading, and
+ * shutdown operations. Maintains instances of ConfigHelper, SequenceRegistry,
+ * SoundcheckCommand, PlayefxCommand, PlayfxCommand, PlaysoundCommand, and
+ * SequenceCommand.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Soundcheck extends JavaPlugin {
+    
+    /* Most validation problems sent to a player, the rest are only logged */
+    private static final int REPORT_LINES = 20;
+    
+    private FileConfiguration config = null;
+    private ConfigHelper configHelper = null;
+    private SequenceRegistry sequenceRegistry = null;
+    private SequenceCache sequenceCache = null;
+    private MuteList muteList = null;
+    private PlayerListener playerListener = null;
+    private BlockListener blockListener = null;
+    private RateLimiter rateLimiter = new RateLimiter();
+    private InvocationCache invocationCache = new InvocationCache(0);
+    private SoundcheckCommand soundcheckCommand = null;
+    private MuteCommand muteCommand = null;
+    private PlayEfxCommand playEfxCommand = null;
+    private PlayFxCommand playFxCommand = null;
+    private PlaySoundCommand playSoundCommand = null;
+    private SequenceCommand sequenceCommand = null;
+    private SequenceWatcher sequenceWatcher = null;
+    private boolean reloading = false;
+    private boolean validating = false;
+    
+    /* Strings for fancyLog() methods */
+    private final String logPrefix = ChatColor.DARK_PURPLE + "[Soundcheck] ";
+    private final String logColor = ChatColor.LIGHT_PURPLE.toString();
+    
+    /**
+     * Log a message to the console using color, with a specific logging Level.
+     * If there is no console open, log the message without any coloration.
+     * 
+     * @param level
+     *            Level at which the message should be logged
+     * @param message
+     *            The message to be logged
+     */
+    public void fancyLog(Level level, String message) {
+        if (getServer().getConsoleSender() != null) {
+            getServer().getConsoleSender().sendMessage(
+                    logPrefix + logColor + message);
+        } else {
+            getServer().getLogger().log(level,
+                    ChatColor.stripColor(logPrefix + message));
+        }
+    }
+    
+    /**
+     * Log a message to the console using color, defaulting to the Info level.
+     * If there is no console open, log the message without any coloration.
+     * 
+     * @param message
+     *            The message to be logged
+     */
+    public void fancyLog(String message) {
+        fancyLog(Level.INFO, message);
+    }
+    
+    /**
+     * Get the configuration that is currently applied. After a reload this is
+     * the configuration that was validated and swapped in, rather than one
+     * read by JavaPlugin.
+     * 
+     * @return the live configuration
+     */
+    @Override
+    public FileConfiguration getConfig() {
+        return (config != null ? config : super.getConfig());
+    }
+    
+    /**
+     * @return the configuration helper instance
+     */
+    public ConfigHelper getConfigHelper() {
+        return configHelper;
+    }
+    
+    /**
+     * @return the cache of parsed command block invocations
+     */
+    public InvocationCache getInvocationCache() {
+        return invocationCache;
+    }
+    
+    /**
+     * @return the players who have opted out of sounds and effects
+     */
+    public MuteList getMuteList() {
+        return muteList;
+    }
+    
+    /**
+     * @return the limiter for command usage
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * @return the cache of sequences compiled in earlier runs
+     */
+    public SequenceCache getSequenceCache() {
+        return sequenceCache;
+    }
+    
+    /**
+     * @return the registry of compiled sequences
+     */
+    public SequenceRegistry getSequenceRegistry() {
+        return sequenceRegistry;
+    }
+    
+    /**
+     * Make a snapshot of the configuration live, replacing the current one.
+     * Must be called on the main thread, and completes within the tick, so
+     * commands and playbacks never see a mix of old and new settings.
+     * 
+     * @param snapshot
+     *            Compiled configuration
+     */
+    private void apply(ConfigSnapshot snapshot) {
+        config = snapshot.getConfig();
+        configHelper = snapshot.getConfigHelper();
+        loadSettings(snapshot);
+        loadSequences(snapshot);
+        loadWatcher();
+    }
+    
+    /**
+     * Apply settings from the configuration that are cached by other classes.
+     * 
+     * @param snapshot
+     *            Compiled configuration
+     */
+    private void loadSettings(ConfigSnapshot snapshot) {
+        SequenceManager.setLimits(configHelper.getPlaybackLimits());
+        configHelper.configureLoadMonitor(SequenceManager.getLoadMonitor());
+        Emitter<World, Player> emitter = EmissionManager.getEmitter();
+        emitter.setMode(configHelper.getEmissionMode());
+        emitter.getCoalescer().setDistance(configHelper.getCoalesceDistance());
+        rateLimiter = configHelper.getRateLimiter();
+        invocationCache = new InvocationCache(configHelper
+                .getCommandCacheSize());
+        PlayableSound.setNames(snapshot.getSoundNames());
+        PlayableEffect.setNames(snapshot.getEffectNames());
+        PlayableEntityEffect.setNames(snapshot.getEntityEffectNames());
+    }
+    
+    /**
+     * Replace the current sequence registry with the compiled one, and report
+     * any sequences that failed to compile.
+     * 
+     * @param snapshot
+     *            Compiled configuration
+     */
+    private void loadSequences(ConfigSnapshot snapshot) {
+        sequenceRegistry = snapshot.getSequenceRegistry();
+        invocationCache.clear();
+        for (String error : snapshot.getErrors()) {
+            fancyLog(Level.WARNING, error);
+        }
+        fancyLog("Compiled " + sequenceRegistry.size() + " sequence(s)");
+        fancyLog("Indexed " + sequenceRegistry.getLibrary().size()
+                + " sequence file(s)");
+    }
+    
+    /**
+     * Start or stop watching 'config.yml' for changed sequences, as the
+     * configuration requires. A watcher that keeps running compares later
+     * changes with the configuration just applied.
+     */
+    private void loadWatcher() {
+        if (configHelper.isWatchEnabled() && sequenceWatcher == null) {
+            try {
+                sequenceWatcher = new SequenceWatcher(this,
+                        configHelper.getSequences());
+                fancyLog("Watching config.yml for changed sequences");
+            } catch (IOException e) {
+                fancyLog(Level.WARNING, "Could not watch config.yml: "
+                        + e.getMessage());
+            }
+        } else if (!configHelper.isWatchEnabled() && sequenceWatcher != null) {
+            sequenceWatcher.close();
+            sequenceWatcher = null;
+            fancyLog("Stopped watching config.yml");
+        } else if (sequenceWatcher != null) {
+            sequenceWatcher.setBaseline(configHelper.getSequences());
+        }
+    }
+    
+    /**
+     * Close all event handlers and command listeners, then null instances to
+     * mark them for garbage collection. Displays elapsed time to console when
+     * finished.
+     */
+    @Override
+    public void onDisable() {
+        long start = Calendar.getInstance().getTimeInMillis();
+        fancyLog("=== DISABLE START ===");
+        getServer().getScheduler().cancelTasks(this);
+        fancyLog("Ended any running tasks");
+        sequenceCommand.close();
+        sequenceCommand = null;
+        playSoundCommand.close();
+        playSoundCommand = null;
+        playFxCommand.close();
+        playFxCommand = null;
+        playEfxCommand.close();
+        playEfxCommand = null;
+        soundcheckCommand.close();
+        soundcheckCommand = null;
+        muteCommand.close();
+        muteCommand = null;
+        fancyLog("Released all registered commands");
+        playerListener.close();
+        playerListener = null;
+        blockListener.close();
+        blockListener = null;
+        fancyLog("Released all event handlers");
+        if (sequenceWatcher != null) {
+            sequenceWatcher.close();
+            sequenceWatcher = null;
+            fancyLog("Stopped watching config.yml");
+        }
+        if (sequenceCache.isDirty()) {
+            try {
+                int saved = sequenceCache.save(sequenceRegistry.getLibrary()
+                        .getNames());
+                fancyLog("Saved " + saved + " precompiled sequence(s)");
+            } catch (IOException e) {
+                fancyLog(Level.WARNING, "Failed to save sequence cache: "
+                        + e.getMessage());
+            }
+        }
+        try {
+            /* Its task may have been cancelled before it could run */
+            muteList.flush();
+        } catch (IOException e) {
+            fancyLog(Level.WARNING, "Failed to save muted players: "
+                    + e.getMessage());
+        }
+        config = null;
+        configHelper = null;
+        sequenceRegistry = null;
+        sequenceCache = null;
+        muteList = null;
+        reloading = false;
+        validating = false;
+        SequenceManager.close();
+        EmissionManager.close();
+        fancyLog("=== DISABLE COMPLETE ("
+                + (Calendar.getInstance().getTimeInMillis() - start)
+                + "ms) ===");
+    }
+    
+    /**
+     * Set up the plugin by: loading config.yml (creating from default if not
+     * existent), then instantiating its own ConfigHelper, SoundcheckCommand,
+     * and PluginListener objects. Displays elapsed time to console when
+     * finished.
+     */
+    @Override
+    public void onEnable() {
+        long start = Calendar.getInstance().getTimeInMillis();
+        fancyLog("=== ENABLE START ===");
+        File configFile = new File(getDataFolder(), "config.yml");
+        if (!configFile.exists()) {
+            saveDefaultConfig();
+            fancyLog("Saved default config.yml");
+        }
+        File sequenceFolder = new File(getDataFolder(), "sequences");
+        if (!sequenceFolder.exists() && sequenceFolder.mkdirs()) {
+            fancyLog("Created sequences folder");
+        }
+        sequenceCache = new SequenceCache(new File(getDataFolder(),
+                "sequences.cache"));
+        try {
+            sequenceCache.load();
+            fancyLog("Loaded " + sequenceCache.size()
+                    + " precompiled sequence(s)");
+        } catch (IOException e) {
+            fancyLog(Level.WARNING, "Ignoring sequence cache: "
+                    + e.getMessage());
+        }
+        muteList = new MuteList(new File(getDataFolder(), "muted.txt"));
+        try {
+            muteList.load();
+        } catch (IOException e) {
+            fancyLog(Level.WARNING, "Ignoring muted players: "
+                    + e.getMessage());
+        }
+        
+        SequenceManager.init(this);
+        EmissionManager.init(this);
+        apply(new ConfigSnapshot(this, super.getConfig()));
+        soundcheckCommand = new SoundcheckCommand(this);
+        muteCommand = new MuteCommand(this);
+        playEfxCommand = new PlayEfxCommand(this);
+        playFxCommand = new PlayFxCommand(this);
+        playSoundCommand = new PlaySoundCommand(this);
+        sequenceCommand = new SequenceCommand(this);
+        playerListener = new PlayerListener(this);
+        blockListener = new BlockListener(this);
+        startMetrics();
+        if (configHelper.isValidateOnEnable()) {
+            validate(getServer().getConsoleSender());
+        }
+        fancyLog("=== ENABLE COMPLETE ("
+                + (Calendar.getInstance().getTimeInMillis() - start)
+                + "ms) ===");
+    }
+    
+    /**
+     * Reload the configuration from disk. The file is read and compiled off
+     * the main thread, then validated and swapped in on the next tick. If it
+     * cannot be read or any sequence fails to compile, the current
+     * configuration stays live and every error is reported to the console and
+     * the sender. Displays elapsed time to console when finished.
+     * 
+     * @param sender
+     *            User to notify when the reload finishes
+     * @return False if a reload was already in progress
+     */
+    public boolean reload(final CommandSender sender) {
+        if (reloading) {
+            return false;
+        }
+        reloading = true;
+        final long start = Calendar.getInstance().getTimeInMillis();
+        fancyLog("=== RELOAD START ===");
+        getServer().getScheduler().runTaskAsynchronously(this, new Runnable() {
+            @Override
+            public void run() {
+                ConfigSnapshot snapshot = null;
+                String failure = null;
+                try {
+                    snapshot = ConfigSnapshot.load(Soundcheck.this);
+                } catch (IOException e) {
+                    failure = "Could not read config.yml: " + e.getMessage();
+                } catch (InvalidConfigurationException e) {
+                    failure = "Invalid config.yml: " + e.getMessage();
+                } catch (RuntimeException e) {
+                    /* Reported like any other failure so the flag is cleared */
+                    failure = "Could not compile config.yml: " + e;
+                }
+                if (isEnabled()) {
+                    final ConfigSnapshot loaded = snapshot;
+                    final String error = failure;
+                    getServer().getScheduler().runTask(Soundcheck.this,
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    finishReload(sender, loaded, error, start);
+                                }
+                            });
+                }
+            }
+        });
+        return true;
+    }
+    
+    /**
+     * Swap in a reloaded configuration if it is valid, or report why not.
+     * Runs on the main thread.
+     * 
+     * @param sender
+     *            User to notify
+     * @param snapshot
+     *            Compiled configuration, or null if it could not be loaded
+     * @param failure
+     *            Reason the configuration could not be loaded, or null
+     * @param start
+     *            Time the reload started (in milliseconds)
+     */
+    private void finishReload(CommandSender sender, ConfigSnapshot snapshot,
+            String failure, long start) {
+        reloading = false;
+        if (snapshot != null && snapshot.isValid()) {
+            apply(snapshot);
+            fancyLog("Configuration reloaded from disk.");
+            sender.sendMessage("Configuration reloaded from disk.");
+        } else {
+            List<String> errors = (snapshot == null ? Collections
+                    .singletonList(failure) : snapshot.getErrors());
+            for (String error : errors) {
+                fancyLog(Level.WARNING, error);
+                sender.sendMessage(ChatColor.RED + error);
+            }
+            fancyLog(Level.WARNING, "Reload failed, configuration unchanged.");
+            sender.sendMessage(ChatColor.RED
+                    + "Reload failed, configuration unchanged.");
+        }
+        fancyLog("=== RELOAD COMPLETE ("
+                + (Calendar.getInstance().getTimeInMillis() - start)
+                + "ms) ===");
+    }
+    
+    /**
+     * Report the problems found by a validation. Every problem is logged to
+     * the console, while a player is sent only the first few. Runs on the main
+     * thread.
+     * 
+     * @param sender
+     *            User to notify
+     * @param problems
+     *            Problems found, keyed by sequence, or null if the
+     *            configuration could not be read
+     * @param failure
+     *            Reason the configuration could not be read, or null
+     * @param count
+     *            Number of sequences that were checked
+     * @param start
+     *            Time the validation started (in milliseconds)
+     */
+    private void finishValidate(CommandSender sender,
+            Map<String, List<String>> problems, String failure, int count,
+            long start) {
+        validating = false;
+        boolean echo = (sender != null
+                && !(sender instanceof ConsoleCommandSender));
+        if (problems == null) {
+            fancyLog(Level.WARNING, failure);
+            if (echo) {
+                sender.sendMessage(ChatColor.RED + failure);
+            }
+            return;
+        }
+        boolean limited = (sender instanceof Player);
+        int lines = 0;
+        int total = 0;
+        for (Map.Entry<String, List<String>> entry : problems.entrySet()) {
+            for (String problem : entry.getValue()) {
+                String message = "Error in sequence " + entry.getKey() + ": "
+                        + problem;
+                fancyLog(Level.WARNING, message);
+                if (echo && (!limited || lines < REPORT_LINES)) {
+                    sender.sendMessage(ChatColor.RED + message);
+                    lines++;
+                }
+                total++;
+            }
+        }
+        if (echo && total > lines) {
+            sender.sendMessage(ChatColor.RED + "... and " + (total - lines)
+                    + " more (see console)");
+        }
+        String summary = "Validated " + count + " sequence(s) in "
+                + (Calendar.getInstance().getTimeInMillis() - start) + "ms: "
+                + (problems.isEmpty() ? "no problems found" : total
+                        + " problem(s) in " + problems.size() + " sequence(s)");
+        fancyLog(problems.isEmpty() ? Level.INFO : Level.WARNING, summary);
+        if (echo) {
+            sender.sendMessage((problems.isEmpty() ? "" : ChatColor.RED)
+                    + summary);
+        }
+    }
+    
+    /**
+     * If possible, instantiate Metrics and connect with mcstats.org.
+     */
+    private void startMetrics() {
+        MetricsLite metrics;
+        try {
+            metrics = new MetricsLite(this);
+            if (metrics.start()) {
+                fancyLog("Metrics enabled.");
+            }
+        } catch (IOException e) {
+            fancyLog(Level.WARNING, "Metrics exception: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Record that sequence files have been created, changed, or deleted since
+     * they were indexed. Must be called on the main thread.
+     * 
+     * @param present
+     *            Names of sequences whose files now exist
+     * @param absent
+     *            Names of sequences whose files no longer exist
+     */
+    public void updateSequenceFiles(Collection<String> present,
+            Collection<String> absent) {
+        if (sequenceRegistry == null) {
+            return;
+        }
+        sequenceRegistry.getLibrary().update(present, absent);
+        invocationCache.clear();
+        fancyLog("Updated " + (present.size() + absent.size())
+                + " sequence file(s)");
+    }
+    
+    /**
+     * Publish sequences that were recompiled after their definitions changed
+     * on disk, replacing the current registry with an updated copy. Must be
+     * called on the main thread.
+     * 
+     * @param changed
+     *            Newly compiled sequences, keyed by name
+     * @param failed
+     *            Compilation errors of changed sequences, keyed by name
+     * @param removed
+     *            Names of sequences that no longer exist
+     */
+    public void updateSequences(Map<String, Sequence> changed,
+            Map<String, String> failed, Collection<String> removed) {
+        if (sequenceRegistry == null) {
+            return;
+        }
+        sequenceRegistry = sequenceRegistry.update(changed, failed, removed);
+        invocationCache.clear();
+        for (Map.Entry<String, String> error : failed.entrySet()) {
+            fancyLog(Level.WARNING, "Error in sequence '" + error.getKey()
+                    + "': " + error.getValue());
+        }
+        fancyLog("Updated " + changed.size() + " and removed "
+                + removed.size() + " sequence(s) from config.yml");
+    }
+    
+    /**
+     * Check every sequence in 'config.yml' and the sequences folder, as they
+     * are on disk, reporting every problem rather than only the first. The
+     * files are read and checked off the main thread, in parallel, and the
+     * report is made on the main thread when the check finishes. Nothing is
+     * applied, so a configuration can be validated before it is reloaded.
+     * 
+     * @param sender
+     *            User to notify when the validation finishes
+     * @return False if a validation was already in progress
+     */
+    public boolean validate(final CommandSender sender) {
+        if (validating) {
+            return false;
+        }
+        validating = true;
+        final long start = Calendar.getInstance().getTimeInMillis();
+        getServer().getScheduler().runTaskAsynchronously(this, new Runnable() {
+            @Override
+            public void run() {
+                Map<String, List<String>> problems = null;
+                String failure = null;
+                int count = 0;
+                try {
+                    YamlConfiguration config = ConfigSnapshot
+                            .read(Soundcheck.this);
+                    ConfigHelper helper = new ConfigHelper(Soundcheck.this,
+                            config);
+                    SequenceValidator validator = new SequenceValidator(
+                            helper.getNameTable(Sound.class, "aliases.sound"),
+                            helper.getNameTable(Effect.class,
+                                    "aliases.effect"));
+                    validator.addSection(helper.getSequences());
+                    validator.addDirectory(new File(getDataFolder(),
+                            "sequences"));
+                    count = validator.size();
+                    problems = validator.validate();
+                } catch (IOException e) {
+                    failure = "Could not read config.yml: " + e.getMessage();
+                } catch (InvalidConfigurationException e) {
+                    failure = "Invalid config.yml: " + e.getMessage();
+                } catch (RuntimeException e) {
+                    /* Reported like any other failure so the flag is cleared */
+                    failure = "Could not validate sequences: " + e;
+                }
+                if (isEnabled()) {
+                    final Map<String, List<String>> found = problems;
+                    final String error = failure;
+                    final int checked = count;
+                    getServer().getScheduler().runTask(Soundcheck.this,
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    finishValidate(sender, found, error,
+                                            checked, start);
+                                }
+                            });
+                }
+            }
+        });
+        return true;
+    }
+    
+}
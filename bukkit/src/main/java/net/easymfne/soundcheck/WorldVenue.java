@@ -0,0 +1,73 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+
+/**
+ * The Venue of Bukkit worlds, which plays the Emitter's sounds and effects
+ * through World for everyone nearby. Points are written into one scratch
+ * Location, so this must only be used from the main thread.
+ * 
+ * @author Eric Hildebrand
+ */
+public class WorldVenue implements Venue<World> {
+    
+    /* Cached enum values for resolving ordinals */
+    private static final Sound[] sounds = Sound.values();
+    private static final Effect[] effects = Effect.values();
+    
+    private final Location scratch = new Location(null, 0, 0, 0);
+    
+    /**
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @return Scratch location set to the point
+     */
+    private Location at(World world, double x, double y, double z) {
+        scratch.setWorld(world);
+        scratch.setX(x);
+        scratch.setY(y);
+        scratch.setZ(z);
+        return scratch;
+    }
+    
+    @Override
+    public void playEffect(World world, double x, double y, double z,
+            int effect, int data, int radius) {
+        if (radius < 0) {
+            world.playEffect(at(world, x, y, z), effects[effect], data);
+        } else {
+            world.playEffect(at(world, x, y, z), effects[effect], data,
+                    radius);
+        }
+    }
+    
+    @Override
+    public void playSound(World world, double x, double y, double z,
+            int sound, float volume, float pitch) {
+        world.playSound(at(world, x, y, z), sounds[sound], volume, pitch);
+    }
+    
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.List;
+
+import net.easymfne.soundcheck.PlayerNames;
+import net.easymfne.soundcheck.datatype.NameTable;
+
+import org.bukkit.Location;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.util.StringUtil;
+
+/**
+ * Shared helpers for the commands' tab completion. Each adds the candidates
+ * of one kind that begin with the argument typed so far.
+ * 
+ * @author Eric Hildebrand
+ */
+final class Completer {
+    
+    /* Offset suggested for relative coordinates */
+    private static final String RELATIVE = "~0,0,0";
+    
+    /**
+     * Add the coordinates of the block the sender is at, and a relative
+     * offset.
+     * 
+     * @param matches
+     *            Candidates so far
+     * @param sender
+     *            User completing
+     * @param prefix
+     *            Argument typed so far
+     */
+    static void addLocations(List<String> matches, CommandSender sender,
+            String prefix) {
+        Location location = null;
+        if (sender instanceof Player) {
+            location = ((Player) sender).getLocation();
+        } else if (sender instanceof BlockCommandSender) {
+            location = ((BlockCommandSender) sender).getBlock().getLocation();
+        }
+        if (location != null) {
+            String coordinates = location.getBlockX() + ","
+                    + location.getBlockY() + "," + location.getBlockZ();
+            if (coordinates.startsWith(prefix)) {
+                matches.add(coordinates);
+            }
+        }
+        if (RELATIVE.startsWith(prefix)) {
+            matches.add(RELATIVE);
+        }
+    }
+    
+    /**
+     * Add the names of online players.
+     * 
+     * @param matches
+     *            Candidates so far
+     * @param prefix
+     *            Argument typed so far
+     */
+    static void addPlayers(List<String> matches, String prefix) {
+        matches.addAll(PlayerNames.complete(prefix));
+    }
+    
+    /**
+     * Add subcommands.
+     * 
+     * @param matches
+     *            Candidates so far
+     * @param subcommands
+     *            Subcommands of the command
+     * @param prefix
+     *            Argument typed so far
+     */
+    static void addSubcommands(List<String> matches, List<String> subcommands,
+            String prefix) {
+        for (String subcommand : subcommands) {
+            if (StringUtil.startsWithIgnoreCase(subcommand, prefix)) {
+                matches.add(subcommand);
+            }
+        }
+    }
+    
+    /**
+     * Once a known name and a colon have been typed, hint at the values that
+     * follow it in the "NAME:first:second" format.
+     * 
+     * @param matches
+     *            Candidates so far
+     * @param names
+     *            Table of known names
+     * @param prefix
+     *            Argument typed so far
+     * @param first
+     *            Value to suggest for the first number
+     * @param second
+     *            Value to suggest for the second number
+     */
+    static void addValues(List<String> matches, NameTable<?> names,
+            String prefix, String first, String second) {
+        int colon = prefix.indexOf(':');
+        if (colon < 0 || names.get(prefix, 0, colon) == null) {
+            return;
+        }
+        int next = prefix.indexOf(':', colon + 1);
+        if (next < 0 && colon + 1 == prefix.length()) {
+            matches.add(prefix + first + ":" + second);
+        } else if (next < 0) {
+            matches.add(prefix + ":" + second);
+        } else if (next + 1 == prefix.length()) {
+            matches.add(prefix + second);
+        }
+    }
+    
+    private Completer() {
+    }
+    
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+/**
+ * Immutable result of parsing a command's arguments: the thing to play, and
+ * the plan for where to play it. Invocations hold no references to players,
+ * so they can safely be cached and run again.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Invocation<T> {
+    
+    private final T playable;
+    private final TargetPlan plan;
+    
+    /**
+     * @param playable
+     *            Sound, effect, or sequence to play
+     * @param plan
+     *            Where to play it
+     */
+    public Invocation(T playable, TargetPlan plan) {
+        this.playable = playable;
+        this.plan = plan;
+    }
+    
+    /**
+     * @return Where to play the playable
+     */
+    public TargetPlan getPlan() {
+        return plan;
+    }
+    
+    /**
+     * @return Sound, effect, or sequence to play
+     */
+    public T getPlayable() {
+        return playable;
+    }
+    
+}
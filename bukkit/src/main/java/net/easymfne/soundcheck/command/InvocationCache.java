@@ -0,0 +1,177 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Bounded, least-recently-used cache of parsed command block invocations,
+ * keyed by command, block position, and the raw argument array. Command
+ * blocks repeat the same text many times, so later runs can skip parsing.
+ * 
+ * @author Eric Hildebrand
+ */
+public class InvocationCache {
+    
+    /**
+     * Identity of one command block's command text.
+     */
+    private static class Key {
+        private final String command;
+        private final World world;
+        private final int x, y, z;
+        private final String[] args;
+        private final int hash;
+        
+        private Key(String command, Block block, String[] args) {
+            this.command = command;
+            this.world = block.getWorld();
+            this.x = block.getX();
+            this.y = block.getY();
+            this.z = block.getZ();
+            this.args = args;
+            int hash = command.hashCode() * 31 + world.hashCode();
+            hash = ((hash * 31 + x) * 31 + y) * 31 + z;
+            this.hash = hash * 31 + Arrays.hashCode(args);
+        }
+        
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return hash == other.hash && x == other.x && y == other.y
+                    && z == other.z && world == other.world
+                    && command.equals(other.command)
+                    && Arrays.equals(args, other.args);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        private boolean isAt(Block block) {
+            return world == block.getWorld() && x == block.getX()
+                    && y == block.getY() && z == block.getZ();
+        }
+    }
+    
+    private final Map<Key, Invocation<?>> entries;
+    private final int capacity;
+    
+    /**
+     * @param capacity
+     *            Most invocations to keep, or 0 to disable caching
+     */
+    public InvocationCache(final int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, Invocation<?>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Key, Invocation<?>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+    
+    /**
+     * Forget every cached invocation, such as when the configuration changes.
+     */
+    public void clear() {
+        entries.clear();
+    }
+    
+    /**
+     * @param command
+     *            Command name
+     * @param block
+     *            Command block
+     * @param args
+     *            Raw arguments
+     * @return Cached invocation, or null if there is none
+     */
+    public Invocation<?> get(String command, Block block, String[] args) {
+        if (capacity <= 0) {
+            return null;
+        }
+        return entries.get(new Key(command, block, args));
+    }
+    
+    /**
+     * Forget every invocation cached for a command block.
+     * 
+     * @param block
+     *            Block that has changed
+     */
+    public void invalidate(Block block) {
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isAt(block)) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * Forget one cached invocation.
+     * 
+     * @param command
+     *            Command name
+     * @param block
+     *            Command block
+     * @param args
+     *            Raw arguments
+     */
+    public void invalidate(String command, Block block, String[] args) {
+        entries.remove(new Key(command, block, args));
+    }
+    
+    /**
+     * Cache an invocation. The argument array is copied.
+     * 
+     * @param command
+     *            Command name
+     * @param block
+     *            Command block
+     * @param args
+     *            Raw arguments
+     * @param invocation
+     *            Parsed invocation
+     */
+    public void put(String command, Block block, String[] args,
+            Invocation<?> invocation) {
+        if (capacity > 0) {
+            entries.put(new Key(command, block, args.clone()), invocation);
+        }
+    }
+    
+    /**
+     * @return Number of cached invocations
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.easymfne.soundcheck.EmissionManager;
+import net.easymfne.soundcheck.Emitter.Mode;
+import net.easymfne.soundcheck.MuteList;
+import net.easymfne.soundcheck.Soundcheck;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+import org.bukkit.entity.Player;
+
+/**
+ * The class that handles the "/soundmute" command for the plugin, which lets
+ * a player opt in or out of the plugin's sounds and effects.
+ * 
+ * @author Eric Hildebrand
+ */
+public class MuteCommand implements CommandExecutor, TabExecutor {
+    
+    private Soundcheck plugin = null;
+    
+    /**
+     * Instantiate by getting a reference to the plugin instance and registering
+     * this class to handle the '/soundmute' command.
+     * 
+     * @param plugin
+     *            Reference to Soundcheck plugin instance
+     */
+    public MuteCommand(Soundcheck plugin) {
+        this.plugin = plugin;
+        plugin.getCommand("soundmute").setExecutor(this);
+    }
+    
+    /**
+     * Release the '/soundmute' command from its ties to this class.
+     */
+    public void close() {
+        plugin.getCommand("soundmute").setExecutor(null);
+        plugin = null;
+    }
+    
+    /**
+     * This method handles user commands. Usage: "/soundmute", toggling
+     * whether the sender is muted.
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command,
+            String label, String[] args) {
+        if (args.length != 0) {
+            return false;
+        }
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED
+                    + "Only players can mute sounds and effects.");
+            return true;
+        }
+        MuteList mutes = plugin.getMuteList();
+        boolean muted = mutes.toggle(((Player) sender).getUniqueId());
+        mutes.saveLater(plugin);
+        if (!muted) {
+            sender.sendMessage("You will hear sounds and see effects again.");
+        } else if (EmissionManager.getEmitter().getMode() == Mode.AUDIENCE) {
+            sender.sendMessage("You will no longer hear sounds or see "
+                    + "effects.");
+        } else {
+            sender.sendMessage("You are muted, but this server plays sounds "
+                    + "and effects to everyone nearby.");
+        }
+        return true;
+    }
+    
+    /**
+     * The command takes no arguments, so nothing is suggested.
+     */
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command,
+            String alias, String[] args) {
+        return new ArrayList<String>();
+    }
+    
+}
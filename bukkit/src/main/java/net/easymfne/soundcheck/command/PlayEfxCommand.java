@@ -17,19 +17,18 @@ package net.easymfne.soundcheck.command;
 import java.util.ArrayList;
 import java.util.List;
 
+import net.easymfne.soundcheck.RateLimiter.Target;
 import net.easymfne.soundcheck.Soundcheck;
 import net.easymfne.soundcheck.datatype.PlayableEntityEffect;
 
 import org.apache.commons.lang.StringUtils;
 import org.bukkit.ChatColor;
 import org.bukkit.Effect;
-import org.bukkit.EntityEffect;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabExecutor;
 import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
 /**
  * The class that handles the "/playefx" command for the plugin.
@@ -94,6 +93,11 @@ public class PlayEfxCommand implements CommandExecutor, TabExecutor {
             return true;
         }
         if (args.length > 0) {
+            if (!plugin.getRateLimiter().tryAcquire(Target.PLAYEFX, sender)) {
+                sender.sendMessage(ChatColor.RED
+                        + "You are doing that too often.");
+                return true;
+            }
             try {
                 parseCommand(sender, args);
             } catch (EntityEffectError e) {
@@ -105,88 +109,52 @@ public class PlayEfxCommand implements CommandExecutor, TabExecutor {
     }
     
     /**
-     * Suggest tab-completions from lists of subcommands and effects.
+     * Suggest tab-completions from lists of subcommands and entity effects,
+     * then from online players.
      */
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command,
             String alias, String[] args) {
+        String prefix = args[args.length - 1];
+        List<String> matches = new ArrayList<String>();
         if (args.length == 1) {
-            List<String> matches = new ArrayList<String>();
-            for (String subcommand : subcommands) {
-                if (StringUtil.startsWithIgnoreCase(subcommand, args[0])) {
-                    matches.add(subcommand);
-                }
-            }
-            for (EntityEffect effect : EntityEffect.values()) {
-                if (StringUtil.startsWithIgnoreCase(effect.name(), args[0])) {
-                    matches.add(effect.name());
-                }
-            }
-            if (!matches.isEmpty()) {
-                return matches;
-            }
+            Completer.addSubcommands(matches, subcommands, prefix);
+            matches.addAll(PlayableEntityEffect.getNames().getPrefixTrie()
+                    .complete(prefix));
+        } else if (args.length == 2) {
+            Completer.addPlayers(matches, prefix);
         }
-        return null;
+        return matches;
     }
     
     /**
      * Attempt to parse a user's command arguments.
      * 
-     * TODO: Remove deprecation suppression when Bukkit is at Minecraft 1.8.
-     * 
      * @param sender
      *            User
      * @param args
      *            Arguments
      * @throws EffectError
      */
-    @SuppressWarnings("deprecation")
     private void parseCommand(CommandSender sender, String... args)
             throws EntityEffectError {
-        Player senderPlayer = (sender instanceof Player ? ((Player) sender)
-                : null);
-        Player player = null;
         PlayableEntityEffect effect = null;
+        TargetResolver resolver = new TargetResolver();
         
         if (args.length > 0) {
-            try {
-                effect = PlayableEntityEffect.parse(args[0]);
-            } catch (NullPointerException e) {
-                throw new EntityEffectError("You must specify an effect.");
-            } catch (IllegalArgumentException e) {
+            effect = PlayableEntityEffect.parse(args[0]);
+            if (effect == null) {
                 throw new EntityEffectError("Unknown entity effect: " + args[0]);
             }
         }
-        if (args.length > 1) {
-            player = plugin.getServer().getPlayerExact(args[1]);
-            if (player == null) {
-                throw new EntityEffectError("Unknown player: " + args[1]);
-            }
+        if (args.length > 1 && !resolver.acceptPlayer(args[1])) {
+            throw new EntityEffectError("Unknown player: " + args[1]);
         }
-        playEffect(effect, senderPlayer, player);
-    }
-    
-    /**
-     * Play the EntityEffect at the desired location, pending valid references
-     * to the command sender and referenced player.
-     * 
-     * @param effect
-     *            PlayableEntityEffect to play
-     * @param sender
-     *            Sender's player instance
-     * @param player
-     *            Referenced player
-     * @throws EntityEffectError
-     */
-    private void playEffect(PlayableEntityEffect effect, Player sender,
-            Player player) throws EntityEffectError {
-        if (player != null) {
-            effect.play(player);
-        } else if (sender != null) {
-            effect.play(sender);
-        } else {
+        Player target = resolver.getPlan().resolvePlayer(sender);
+        if (target == null) {
             throw new EntityEffectError("Console users must specify a player.");
         }
+        effect.play(target);
     }
     
     /**
@@ -0,0 +1,248 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.easymfne.soundcheck.RateLimiter.Target;
+import net.easymfne.soundcheck.Soundcheck;
+import net.easymfne.soundcheck.datatype.PlayableEffect;
+
+import org.apache.commons.lang.StringUtils;
+import org.bukkit.ChatColor;
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+
+/**
+ * The class that handles the "/playfx" command for the plugin.
+ * 
+ * Subcommands: help, list
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayFxCommand implements CommandExecutor, TabExecutor {
+    
+    /**
+     * Private helper class for catching command syntax errors.
+     */
+    private class EffectError extends Exception {
+        private static final long serialVersionUID = 7598515283792314632L;
+        
+        public EffectError(String message) {
+            super(message);
+        }
+    }
+    
+    private Soundcheck plugin = null;
+    private List<String> subcommands = null;
+    
+    /**
+     * Initialize by getting a reference to the plugin instance and registering
+     * this class to handle the '/playfx' command.
+     * 
+     * @param plugin
+     *            Reference to Soundcheck plugin instance
+     */
+    public PlayFxCommand(Soundcheck plugin) {
+        this.plugin = plugin;
+        subcommands = new ArrayList<String>();
+        subcommands.add("help");
+        subcommands.add("list");
+        plugin.getCommand("playfx").setExecutor(this);
+    }
+    
+    /**
+     * Release the '/playfx' command from its ties to this class.
+     */
+    public void close() {
+        subcommands.clear();
+        subcommands = null;
+        plugin.getCommand("playfx").setExecutor(null);
+        plugin = null;
+    }
+    
+    /**
+     * Get the parsed form of a user's command arguments. Command blocks repeat
+     * the same arguments, so their invocations are cached.
+     * 
+     * @param sender
+     *            User
+     * @param args
+     *            Arguments
+     * @return Parsed invocation
+     * @throws EffectError
+     */
+    @SuppressWarnings("unchecked")
+    private Invocation<PlayableEffect> getInvocation(CommandSender sender,
+            String[] args) throws EffectError {
+        if (!(sender instanceof BlockCommandSender)) {
+            return parseArguments(args);
+        }
+        Block block = ((BlockCommandSender) sender).getBlock();
+        InvocationCache cache = plugin.getInvocationCache();
+        Invocation<PlayableEffect> invocation;
+        invocation = (Invocation<PlayableEffect>) cache.get("playfx", block,
+                args);
+        if (invocation != null && invocation.getPlan().isCurrent()) {
+            return invocation;
+        }
+        cache.invalidate("playfx", block, args);
+        invocation = parseArguments(args);
+        cache.put("playfx", block, args, invocation);
+        return invocation;
+    }
+    
+    /**
+     * This method handles user commands. Usage: "/playfx".
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command,
+            String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("help")) {
+            showHelp(sender);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("list")) {
+            sender.sendMessage(StringUtils.join(Effect.values(), ",  "));
+            return true;
+        }
+        if (args.length > 0) {
+            if (!plugin.getRateLimiter().tryAcquire(Target.PLAYFX, sender)) {
+                sender.sendMessage(ChatColor.RED
+                        + "You are doing that too often.");
+                return true;
+            }
+            try {
+                parseCommand(sender, args);
+            } catch (EffectError e) {
+                sender.sendMessage(ChatColor.RED + e.getMessage());
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Suggest tab-completions for any argument: subcommands, effects and their
+     * values until one has been given, players, and locations.
+     */
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command,
+            String alias, String[] args) {
+        String prefix = args[args.length - 1];
+        List<String> matches = new ArrayList<String>();
+        if (args.length == 1) {
+            Completer.addSubcommands(matches, subcommands, prefix);
+        }
+        boolean named = false;
+        for (int i = 0; i < args.length - 1; i++) {
+            named |= PlayableEffect.matches(args[i]);
+        }
+        if (!named) {
+            matches.addAll(PlayableEffect.getNames().getPrefixTrie()
+                    .complete(prefix));
+            Completer.addValues(matches, PlayableEffect.getNames(), prefix, "0",
+                    "32");
+        }
+        Completer.addPlayers(matches, prefix);
+        Completer.addLocations(matches, sender, prefix);
+        return matches;
+    }
+    
+    /**
+     * Attempt to parse a user's command arguments.
+     * 
+     * @param args
+     *            Arguments
+     * @return Parsed invocation
+     * @throws EffectError
+     */
+    private Invocation<PlayableEffect> parseArguments(String... args)
+            throws EffectError {
+        TargetResolver resolver = new TargetResolver();
+        PlayableEffect effect = null;
+        
+        /* Iterate through arguments, matching all that we can */
+        /* order of operations: player, coords, relativeCoords, effect */
+        for (String arg : args) {
+            if (resolver.accept(arg)) {
+                continue;
+            }
+            try {
+                PlayableEffect parsed = PlayableEffect.parse(arg);
+                if (parsed != null) {
+                    effect = parsed;
+                    continue;
+                }
+            } catch (NumberFormatException e) {
+                throw new EffectError("Failed to parse data or radius.");
+            }
+            if (PlayableEffect.matches(arg)) {
+                throw new EffectError("Effect does not exist.");
+            }
+            throw new EffectError("Unrecognized player: " + arg);
+        }
+        
+        return new Invocation<PlayableEffect>(effect, resolver.getPlan());
+    }
+    
+    /**
+     * Attempt to parse a user's command arguments and play the effect at the
+     * location they describe.
+     * 
+     * @param sender
+     *            User
+     * @param args
+     *            Arguments
+     * @throws EffectError
+     */
+    private void parseCommand(CommandSender sender, String... args)
+            throws EffectError {
+        Invocation<PlayableEffect> invocation = getInvocation(sender, args);
+        if (invocation.getPlayable() == null) {
+            throw new EffectError("You must specify an effect.");
+        }
+        Location location = invocation.getPlan().resolveLocation(sender);
+        if (location == null) {
+            throw new EffectError("Console users must specify a player.");
+        }
+        invocation.getPlayable().play(location);
+    }
+    
+    /**
+     * Show information about the proper usage of this command.
+     * 
+     * @param sender
+     *            User
+     */
+    private void showHelp(CommandSender sender) {
+        sender.sendMessage(new String[] { "Usage:",
+                "  /playfx list - List available effects",
+                "  /playfx <EFFECT:data:radius> [~x,y,z]",
+                "    - Play an effect relative to the user",
+                "  /playfx <EFFECT:data:radius> <player> [~x,y,z]",
+                "    - Play an effect relative to another player",
+                "  /playfx <EFFECT:data:radius> <x,y,z>",
+                "    - Play an effect at a specific location" });
+    }
+    
+}
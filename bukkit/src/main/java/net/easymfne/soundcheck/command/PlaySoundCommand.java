@@ -0,0 +1,247 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.easymfne.soundcheck.RateLimiter.Target;
+import net.easymfne.soundcheck.Soundcheck;
+import net.easymfne.soundcheck.datatype.PlayableSound;
+
+import org.apache.commons.lang.StringUtils;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.block.Block;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+
+/**
+ * The class that handles the "/playsound" command for the plugin.
+ * 
+ * Subcommands: help, list
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlaySoundCommand implements CommandExecutor, TabExecutor {
+    
+    /**
+     * Private helper class for catching command syntax errors.
+     */
+    private class SoundError extends Exception {
+        private static final long serialVersionUID = 3114509247909886492L;
+        
+        public SoundError(String message) {
+            super(message);
+        }
+    }
+    
+    private Soundcheck plugin = null;
+    private List<String> subcommands = null;
+    
+    /**
+     * Initialize by getting a reference to the plugin instance and registering
+     * this class to handle the '/playsound' command.
+     * 
+     * @param plugin
+     *            Reference to Soundcheck plugin instance
+     */
+    public PlaySoundCommand(Soundcheck plugin) {
+        this.plugin = plugin;
+        subcommands = new ArrayList<String>();
+        subcommands.add("help");
+        subcommands.add("list");
+        plugin.getCommand("playsound").setExecutor(this);
+    }
+    
+    /**
+     * Release the '/playsound' command from its ties to this class.
+     */
+    public void close() {
+        subcommands.clear();
+        subcommands = null;
+        plugin.getCommand("playsound").setExecutor(null);
+        plugin = null;
+    }
+    
+    /**
+     * Get the parsed form of a user's command arguments. Command blocks repeat
+     * the same arguments, so their invocations are cached.
+     * 
+     * @param sender
+     *            User
+     * @param args
+     *            Arguments
+     * @return Parsed invocation
+     * @throws SoundError
+     */
+    @SuppressWarnings("unchecked")
+    private Invocation<PlayableSound> getInvocation(CommandSender sender,
+            String[] args) throws SoundError {
+        if (!(sender instanceof BlockCommandSender)) {
+            return parseArguments(args);
+        }
+        Block block = ((BlockCommandSender) sender).getBlock();
+        InvocationCache cache = plugin.getInvocationCache();
+        Invocation<PlayableSound> invocation = (Invocation<PlayableSound>) cache
+                .get("playsound", block, args);
+        if (invocation != null && invocation.getPlan().isCurrent()) {
+            return invocation;
+        }
+        cache.invalidate("playsound", block, args);
+        invocation = parseArguments(args);
+        cache.put("playsound", block, args, invocation);
+        return invocation;
+    }
+    
+    /**
+     * This method handles user commands. Usage: "/playsound".
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command,
+            String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("help")) {
+            showHelp(sender);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("list")) {
+            sender.sendMessage(StringUtils.join(Sound.values(), ",  "));
+            return true;
+        }
+        if (args.length > 0) {
+            if (!plugin.getRateLimiter().tryAcquire(Target.PLAYSOUND, sender)) {
+                sender.sendMessage(ChatColor.RED
+                        + "You are doing that too often.");
+                return true;
+            }
+            try {
+                parseCommand(sender, args);
+            } catch (SoundError e) {
+                sender.sendMessage(ChatColor.RED + e.getMessage());
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Suggest tab-completions for any argument: subcommands, sounds and their
+     * values until one has been given, players, and locations.
+     */
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command,
+            String alias, String[] args) {
+        String prefix = args[args.length - 1];
+        List<String> matches = new ArrayList<String>();
+        if (args.length == 1) {
+            Completer.addSubcommands(matches, subcommands, prefix);
+        }
+        boolean named = false;
+        for (int i = 0; i < args.length - 1; i++) {
+            named |= PlayableSound.matches(args[i]);
+        }
+        if (!named) {
+            matches.addAll(PlayableSound.getNames().getPrefixTrie()
+                    .complete(prefix));
+            Completer.addValues(matches, PlayableSound.getNames(), prefix, "1",
+                    "1");
+        }
+        Completer.addPlayers(matches, prefix);
+        Completer.addLocations(matches, sender, prefix);
+        return matches;
+    }
+    
+    /**
+     * Attempt to parse a user's command arguments.
+     * 
+     * @param args
+     *            Arguments
+     * @return Parsed invocation
+     * @throws SoundError
+     */
+    private Invocation<PlayableSound> parseArguments(String... args)
+            throws SoundError {
+        TargetResolver resolver = new TargetResolver();
+        PlayableSound sound = null;
+        
+        /* Iterate through arguments, matching all that we can */
+        /* order of operations: player, coords, relativeCoords, sound */
+        for (String arg : args) {
+            if (resolver.accept(arg)) {
+                continue;
+            }
+            try {
+                PlayableSound parsed = PlayableSound.parse(arg);
+                if (parsed != null) {
+                    sound = parsed;
+                    continue;
+                }
+            } catch (NumberFormatException e) {
+                throw new SoundError("Failed to parse volume or pitch.");
+            }
+            if (PlayableSound.matches(arg)) {
+                throw new SoundError("Sound does not exist.");
+            }
+            throw new SoundError("Unrecognized player: " + arg);
+        }
+        
+        return new Invocation<PlayableSound>(sound, resolver.getPlan());
+    }
+    
+    /**
+     * Attempt to parse a user's command arguments and play the sound at the
+     * location they describe.
+     * 
+     * @param sender
+     *            User
+     * @param args
+     *            Arguments
+     * @throws SoundError
+     */
+    private void parseCommand(CommandSender sender, String... args)
+            throws SoundError {
+        Invocation<PlayableSound> invocation = getInvocation(sender, args);
+        if (invocation.getPlayable() == null) {
+            throw new SoundError("You must specify a sound.");
+        }
+        Location location = invocation.getPlan().resolveLocation(sender);
+        if (location == null) {
+            throw new SoundError("Console users must specify a player.");
+        }
+        invocation.getPlayable().play(location);
+    }
+    
+    /**
+     * Show information about the proper usage of this command.
+     * 
+     * @param sender
+     *            User
+     */
+    private void showHelp(CommandSender sender) {
+        sender.sendMessage(new String[] { "Usage:",
+                "  /playsound list - List available sounds",
+                "  /playsound <SOUND:volume:pitch]> [~x,y,z]",
+                "    - Play a sound relative to the user",
+                "  /playsound <SOUND:volume:pitch]> <player> [~x,y,z]",
+                "    - Play a sound relative to another player",
+                "  /playsound <SOUND:volume:pitch]> <x,y,z>",
+                "    - Play a sound at a specific location" });
+    }
+    
+}
@@ -0,0 +1,401 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.easymfne.soundcheck.Playback;
+import net.easymfne.soundcheck.RateLimiter.Target;
+import net.easymfne.soundcheck.SequenceLibrary;
+import net.easymfne.soundcheck.SequenceManager;
+import net.easymfne.soundcheck.SequenceRegistry;
+import net.easymfne.soundcheck.Soundcheck;
+import net.easymfne.soundcheck.datatype.Sequence;
+
+import org.apache.commons.lang.StringUtils;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+import org.bukkit.util.StringUtil;
+
+/**
+ * The class that handles the "/sequence" command for the plugin.
+ * 
+ * Subcommands: help, list, active, stop
+ * 
+ * @author Eric Hildebrand
+ */
+public class SequenceCommand implements CommandExecutor, TabExecutor {
+    
+    /**
+     * Private helper class for catching command syntax errors.
+     */
+    private class SequenceError extends Exception {
+        private static final long serialVersionUID = 5281701902087274671L;
+        
+        public SequenceError(String message) {
+            super(message);
+        }
+    }
+    
+    private Soundcheck plugin = null;
+    private List<String> subcommands = null;
+    
+    /**
+     * Initialize by getting a reference to the plugin instance and registering
+     * this class to handle the '/sequence' command.
+     * 
+     * @param plugin
+     *            Reference to Soundcheck plugin instance
+     */
+    public SequenceCommand(Soundcheck plugin) {
+        this.plugin = plugin;
+        subcommands = new ArrayList<String>();
+        subcommands.add("help");
+        subcommands.add("list");
+        subcommands.add("active");
+        subcommands.add("stop");
+        plugin.getCommand("sequence").setExecutor(this);
+    }
+    
+    /**
+     * Release the '/sequence' command from its ties to this class.
+     */
+    public void close() {
+        subcommands.clear();
+        subcommands = null;
+        plugin.getCommand("sequence").setExecutor(null);
+        plugin = null;
+    }
+    
+    /**
+     * Get the parsed form of a user's command arguments. Command blocks repeat
+     * the same arguments, so their invocations are cached.
+     * 
+     * @param sender
+     *            User
+     * @param args
+     *            Arguments
+     * @return Parsed invocation, or null if the sequence must be loaded first
+     * @throws SequenceError
+     */
+    @SuppressWarnings("unchecked")
+    private Invocation<Sequence> getInvocation(CommandSender sender,
+            String[] args) throws SequenceError {
+        if (!(sender instanceof BlockCommandSender)) {
+            return parseArguments(args);
+        }
+        Block block = ((BlockCommandSender) sender).getBlock();
+        InvocationCache cache = plugin.getInvocationCache();
+        Invocation<Sequence> invocation = (Invocation<Sequence>) cache
+                .get("sequence", block, args);
+        if (invocation != null && invocation.getPlan().isCurrent()) {
+            return invocation;
+        }
+        cache.invalidate("sequence", block, args);
+        invocation = parseArguments(args);
+        if (invocation != null) {
+            cache.put("sequence", block, args, invocation);
+        }
+        return invocation;
+    }
+    
+    /**
+     * Load a sequence file that has not been compiled yet off the main
+     * thread, then play it as the user's arguments describe.
+     * 
+     * @param sender
+     *            User
+     * @param args
+     *            Arguments
+     */
+    private void load(final CommandSender sender, final String[] args) {
+        sender.sendMessage("Loading sequence " + args[0] + "...");
+        plugin.getSequenceRegistry().load(plugin, args[0],
+                new SequenceLibrary.Callback() {
+                    @Override
+                    public void compiled(Sequence sequence, String error) {
+                        try {
+                            play(sender,
+                                    parseArguments(sequence, error, args));
+                        } catch (SequenceError e) {
+                            sender.sendMessage(ChatColor.RED + e.getMessage());
+                        }
+                    }
+                });
+    }
+    
+    /**
+     * This method handles user commands. Usage: "/sequence".
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command,
+            String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("help")) {
+            showHelp(sender);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("list")) {
+            sender.sendMessage(StringUtils.join(plugin.getSequenceRegistry()
+                    .getNames(), ",  "));
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("active")) {
+            showActive(sender);
+            return true;
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("stop")) {
+            stop(sender, args[1]);
+            return true;
+        }
+        if (args.length > 0) {
+            if (!plugin.getRateLimiter().tryAcquire(Target.SEQUENCE, sender)) {
+                sender.sendMessage(ChatColor.RED
+                        + "You are doing that too often.");
+                return true;
+            }
+            try {
+                parseCommand(sender, args);
+            } catch (SequenceError e) {
+                sender.sendMessage(ChatColor.RED + e.getMessage());
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Suggest tab-completions from lists of subcommands and sequences, then
+     * from players and locations, or running sequences to stop.
+     */
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command,
+            String alias, String[] args) {
+        String prefix = args[args.length - 1];
+        List<String> matches = new ArrayList<String>();
+        if (args.length == 1) {
+            Completer.addSubcommands(matches, subcommands, prefix);
+            matches.addAll(plugin.getSequenceRegistry().complete(prefix));
+        } else if (args[0].equalsIgnoreCase("stop")) {
+            if (args.length == 2) {
+                if (StringUtil.startsWithIgnoreCase("all", prefix)) {
+                    matches.add("all");
+                }
+                matches.addAll(plugin.getSequenceRegistry().complete(prefix));
+            }
+        } else {
+            Completer.addPlayers(matches, prefix);
+            Completer.addLocations(matches, sender, prefix);
+        }
+        return matches;
+    }
+    
+    /**
+     * Attempt to parse a user's command arguments.
+     * 
+     * @param args
+     *            Arguments
+     * @return Parsed invocation, or null if the sequence must be loaded first
+     * @throws SequenceError
+     */
+    private Invocation<Sequence> parseArguments(String... args)
+            throws SequenceError {
+        SequenceRegistry registry = plugin.getSequenceRegistry();
+        if (!registry.isLoaded(args[0])) {
+            return null;
+        }
+        return parseArguments(registry.get(args[0]),
+                registry.getError(args[0]), args);
+    }
+    
+    /**
+     * Attempt to parse a user's command arguments, given the sequence they
+     * name.
+     * 
+     * @param sequence
+     *            Sequence named by the first argument, or null
+     * @param error
+     *            Compilation error of the sequence, or null
+     * @param args
+     *            Arguments
+     * @return Parsed invocation
+     * @throws SequenceError
+     */
+    private Invocation<Sequence> parseArguments(Sequence sequence,
+            String error, String... args) throws SequenceError {
+        if (sequence == null) {
+            if (error != null) {
+                throw new SequenceError("Error in sequence: " + error);
+            }
+            throw new SequenceError("Unknown sequence: " + args[0]);
+        }
+        
+        TargetResolver resolver = new TargetResolver();
+        
+        /* Iterate through arguments, matching all that we can */
+        /* order of operations: player, coords, relativeCoords */
+        for (int i = 1; i < args.length; i++) {
+            if (!resolver.accept(args[i])) {
+                throw new SequenceError("Unrecognized player: " + args[i]);
+            }
+        }
+        
+        return new Invocation<Sequence>(sequence, resolver.getPlan());
+    }
+    
+    /**
+     * Attempt to parse a user's command arguments and play the sequence at
+     * the location they describe. A sequence file that has not been compiled
+     * yet is loaded first and played once it is ready.
+     * 
+     * @param sender
+     *            User
+     * @param args
+     *            Arguments
+     * @throws SequenceError
+     */
+    private void parseCommand(CommandSender sender, String... args)
+            throws SequenceError {
+        Invocation<Sequence> invocation = getInvocation(sender, args);
+        if (invocation == null) {
+            load(sender, args);
+        } else {
+            play(sender, invocation);
+        }
+    }
+    
+    /**
+     * Play a parsed invocation at the location it describes. The user is
+     * told when the configured limits prevented it from playing.
+     * 
+     * @param sender
+     *            User
+     * @param invocation
+     *            Parsed invocation
+     * @throws SequenceError
+     */
+    private void play(CommandSender sender, Invocation<Sequence> invocation)
+            throws SequenceError {
+        Location location = invocation.getPlan().resolveLocation(sender);
+        if (location == null) {
+            throw new SequenceError("Console users must specify a player.");
+        }
+        start(invocation.getPlayable(), location);
+    }
+    
+    /**
+     * List every active playback with its ID, sequence, position and
+     * location.
+     * 
+     * @param sender
+     *            User
+     */
+    private void showActive(CommandSender sender) {
+        if (SequenceManager.getActiveCount() == 0) {
+            sender.sendMessage("No sequences are playing.");
+            return;
+        }
+        sender.sendMessage("Active sequences ("
+                + SequenceManager.getActiveCount() + "):");
+        for (Playback playback : SequenceManager.getPlaybacks()) {
+            Location location = playback.getLocation();
+            sender.sendMessage("  #" + playback.getId() + " "
+                    + playback.getSequence().getName() + " ("
+                    + playback.getTick() + "/"
+                    + playback.getSequence().getLength() + ")"
+                    + (playback.isPaused() ? " [paused]" : "") + " at "
+                    + location.getWorld().getName() + " "
+                    + location.getBlockX() + "," + location.getBlockY() + ","
+                    + location.getBlockZ());
+        }
+    }
+    
+    /**
+     * Show information about the proper usage of this command.
+     * 
+     * @param sender
+     *            User
+     */
+    private void showHelp(CommandSender sender) {
+        sender.sendMessage(new String[] { "Usage:",
+                "  /sequence list - List available sequences",
+                "  /sequence active - List sequences that are playing",
+                "  /sequence stop <id|sequence|all>",
+                "    - Stop sequences that are playing",
+                "  /sequence <sequence> [~x,y,z]",
+                "    - Play a sequence relative to the user",
+                "  /sequence <sequence> <player> [~x,y,z]",
+                "    - Play a sequence relative to another player",
+                "  /sequence <sequence> <x,y,z>",
+                "    - Play a sequence at a specific location" });
+    }
+    
+    /**
+     * Play a sequence at a location, failing if the configured limits refuse
+     * to play it.
+     * 
+     * @param sequence
+     *            Sequence to play
+     * @param location
+     *            Location to play sequence
+     * @throws SequenceError
+     */
+    private void start(Sequence sequence, Location location)
+            throws SequenceError {
+        if (sequence.play(location) == null) {
+            throw new SequenceError("Too many sequences are playing.");
+        }
+    }
+    
+    /**
+     * Stop playbacks by ID, by sequence name, or all of them.
+     * 
+     * @param sender
+     *            User
+     * @param target
+     *            Playback ID, sequence name, or "all"
+     */
+    private void stop(CommandSender sender, String target) {
+        if (target.equalsIgnoreCase("all")) {
+            sender.sendMessage("Stopped " + SequenceManager.stopAll()
+                    + " sequence(s).");
+            return;
+        }
+        try {
+            Playback playback = SequenceManager.get(Integer.parseInt(target));
+            if (playback != null) {
+                playback.cancel();
+                sender.sendMessage("Stopped sequence #" + target + ".");
+                return;
+            }
+        } catch (NumberFormatException e) {
+            /* Not an ID, try it as a sequence name */
+        }
+        int stopped = SequenceManager.stopAll(target);
+        if (stopped > 0) {
+            sender.sendMessage("Stopped " + stopped + " sequence(s).");
+        } else {
+            sender.sendMessage(ChatColor.RED + "No playing sequence matches: "
+                    + target);
+        }
+    }
+    
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.easymfne.soundcheck.EmissionManager;
+import net.easymfne.soundcheck.Perms;
+import net.easymfne.soundcheck.PlayerNames;
+import net.easymfne.soundcheck.RateLimiter;
+import net.easymfne.soundcheck.RateLimiter.Target;
+import net.easymfne.soundcheck.SequenceManager;
+import net.easymfne.soundcheck.Soundcheck;
+import net.easymfne.soundcheck.Statistics;
+import net.easymfne.soundcheck.Statistics.Counter;
+import net.easymfne.soundcheck.TokenBuckets;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+import org.bukkit.entity.Player;
+
+/**
+ * The class that handles the "/soundcheck" command for the plugin.
+ * 
+ * Subcommands: help, reload, stats, limits, validate
+ * 
+ * @author Eric Hildebrand
+ */
+public class SoundcheckCommand implements CommandExecutor, TabExecutor {
+    
+    private Soundcheck plugin = null;
+    private List<String> subcommands = null;
+    
+    /**
+     * Instantiate by getting a reference to the plugin instance and registering
+     * this class to handle the '/soundcheck' command.
+     * 
+     * @param plugin
+     *            Reference to Soundcheck plugin instance
+     */
+    public SoundcheckCommand(Soundcheck plugin) {
+        this.plugin = plugin;
+        subcommands = new ArrayList<String>();
+        subcommands.add("help");
+        subcommands.add("reload");
+        subcommands.add("stats");
+        subcommands.add("limits");
+        subcommands.add("validate");
+        plugin.getCommand("soundcheck").setExecutor(this);
+    }
+    
+    /**
+     * Release the '/soundcheck' command from its ties to this class.
+     */
+    public void close() {
+        subcommands.clear();
+        subcommands = null;
+        plugin.getCommand("soundcheck").setExecutor(null);
+        plugin = null;
+    }
+    
+    /**
+     * This method handles user commands. Usage: "/soundcheck".
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command,
+            String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("help")) {
+            showHelp(sender);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("reload")) {
+            if (plugin.reload(sender)) {
+                sender.sendMessage("Reloading configuration...");
+            } else {
+                sender.sendMessage(ChatColor.RED
+                        + "A reload is already in progress.");
+            }
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("stats")) {
+            showStats(sender);
+            return true;
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            showStats(sender, args[1]);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("limits")) {
+            showLimits(sender);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("validate")) {
+            if (plugin.validate(sender)) {
+                sender.sendMessage("Validating sequences...");
+            } else {
+                sender.sendMessage(ChatColor.RED
+                        + "Validation is already in progress.");
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Suggest tab-completions from the list of subcommands, then from online
+     * players for "stats".
+     */
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command,
+            String alias, String[] args) {
+        String prefix = args[args.length - 1];
+        List<String> matches = new ArrayList<String>();
+        if (args.length == 1) {
+            Completer.addSubcommands(matches, subcommands, prefix);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            Completer.addPlayers(matches, prefix);
+        }
+        return matches;
+    }
+    
+    /**
+     * Show information about the proper usage of this command.
+     * 
+     * @param sender
+     *            User
+     */
+    private void showHelp(CommandSender sender) {
+        sender.sendMessage("Commands:");
+        sender.sendMessage("  /soundcheck - Plugin administration command");
+        if (Perms.canUsePlaySound(sender)) {
+            sender.sendMessage("  /playsound - Play an individual sounds");
+        }
+        if (Perms.canUsePlayFx(sender)) {
+            sender.sendMessage("  /playfx - Play an individual effects");
+        }
+        if (Perms.canUsePlayEfx(sender)) {
+            sender.sendMessage("  /playefx - Play an individual entity-effects");
+        }
+        if (Perms.canUseSequence(sender)) {
+            sender.sendMessage("  /sequence - Play configured sound/effect sequences");
+        }
+        if (Perms.canUseMute(sender)) {
+            sender.sendMessage("  /soundmute - Stop or resume hearing sounds and effects");
+        }
+    }
+    
+    /**
+     * Show the rate limit of each command and how much it is throttling.
+     * 
+     * @param sender
+     *            User
+     */
+    private void showLimits(CommandSender sender) {
+        RateLimiter limiter = plugin.getRateLimiter();
+        if (!limiter.isEnabled()) {
+            sender.sendMessage("Rate limits are disabled.");
+            return;
+        }
+        long now = System.nanoTime();
+        sender.sendMessage("Rate limits:");
+        for (Target target : Target.values()) {
+            TokenBuckets buckets = limiter.getBuckets(target);
+            sender.sendMessage("  /" + target.getName() + ": burst "
+                    + buckets.getBurst() + ", " + buckets.getPerSecond()
+                    + "/s, " + buckets.size() + " sender(s) tracked, "
+                    + buckets.countEmpty(now) + " throttled now, "
+                    + buckets.getThrottled() + " refused");
+        }
+    }
+    
+    /**
+     * Show how many sounds and effects have been sent directly to a player.
+     * 
+     * @param sender
+     *            User
+     * @param name
+     *            Name of the player
+     */
+    private void showStats(CommandSender sender, String name) {
+        Player player = PlayerNames.get(name);
+        if (player == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown player: " + name);
+            return;
+        }
+        sender.sendMessage("  Emissions sent to " + player.getName() + ": "
+                + EmissionManager.getEmitter().getPacketCount(player));
+    }
+    
+    /**
+     * Show playback counts and the values of all statistics counters.
+     * 
+     * @param sender
+     *            User
+     */
+    private void showStats(CommandSender sender) {
+        sender.sendMessage("Statistics:");
+        sender.sendMessage("  Sequences playing: "
+                + SequenceManager.getActiveCount());
+        sender.sendMessage("  Sequences waiting: "
+                + SequenceManager.getQueuedCount());
+        sender.sendMessage("  Estimated TPS: "
+                + String.format("%.1f", SequenceManager.getLoadMonitor()
+                        .getTps()) + " (degradation level "
+                + SequenceManager.getLoadMonitor().getLevel() + ")");
+        for (Counter counter : Counter.values()) {
+            sender.sendMessage("  " + counter.getDescription() + ": "
+                    + Statistics.get(counter));
+        }
+    }
+    
+}
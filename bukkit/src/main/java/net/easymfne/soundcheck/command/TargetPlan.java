@@ -0,0 +1,180 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.List;
+
+import net.easymfne.soundcheck.PlayerNames;
+import net.easymfne.soundcheck.datatype.Coordinates;
+import net.easymfne.soundcheck.datatype.RelativeCoordinates;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Immutable description of where a command plays something: a player, a set
+ * of coordinates, and an offset, any of which may be missing. Players are
+ * kept by name and looked up in PlayerNames on each use, so a plan can be
+ * cached and resolved again for different senders.
+ * 
+ * The base location is the coordinates, in the world of the player or else
+ * of the sender, when coordinates are given; otherwise it is the location of
+ * the player, or else of the sender. The offset is then added to the base.
+ * 
+ * @author Eric Hildebrand
+ */
+public class TargetPlan {
+    
+    private static final String[] NONE = new String[0];
+    
+    private final String[] players;
+    private final String[] others;
+    private final Coordinates coordinates;
+    private final RelativeCoordinates relative;
+    
+    /**
+     * @param players
+     *            Arguments that named online players, in order
+     * @param others
+     *            Arguments that could have named a player, but did not
+     * @param coordinates
+     *            Coordinates specified, may be null
+     * @param relative
+     *            Relative coordinates specified, may be null
+     */
+    public TargetPlan(List<String> players, List<String> others,
+            Coordinates coordinates, RelativeCoordinates relative) {
+        this.players = (players.isEmpty() ? NONE : players
+                .toArray(new String[players.size()]));
+        this.others = (others.isEmpty() ? NONE : others
+                .toArray(new String[others.size()]));
+        this.coordinates = coordinates;
+        this.relative = relative;
+    }
+    
+    /**
+     * @return Coordinates specified, or null
+     */
+    public Coordinates getCoordinates() {
+        return coordinates;
+    }
+    
+    /**
+     * Look up the player specified, which is the last argument naming one.
+     * 
+     * @return Player specified, or null if there was none or they left
+     */
+    public Player getPlayer() {
+        return (players.length == 0 ? null : PlayerNames
+                .get(players[players.length - 1]));
+    }
+    
+    /**
+     * @return Relative coordinates specified, or null
+     */
+    public RelativeCoordinates getRelative() {
+        return relative;
+    }
+    
+    /**
+     * @param sender
+     *            User sending command
+     * @return World of the sender, or null if they have no location
+     */
+    private World getWorld(CommandSender sender) {
+        if (sender instanceof Player) {
+            return ((Player) sender).getWorld();
+        }
+        if (sender instanceof BlockCommandSender) {
+            return ((BlockCommandSender) sender).getBlock().getWorld();
+        }
+        return null;
+    }
+    
+    /**
+     * Check whether parsing the same arguments now would give the same plan.
+     * Arguments are matched against online players first, so the plan changes
+     * when a named player leaves or a player with a matching name joins.
+     * 
+     * @return Whether the plan is still current
+     */
+    public boolean isCurrent() {
+        for (String name : players) {
+            if (PlayerNames.get(name) == null) {
+                return false;
+            }
+        }
+        for (String name : others) {
+            if (PlayerNames.get(name) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Find the location the plan targets. Exactly one Location is created.
+     * 
+     * @param sender
+     *            User sending command
+     * @return Targeted location, or null if neither a player was specified
+     *         nor the sender has a location
+     */
+    public Location resolveLocation(CommandSender sender) {
+        Player player = getPlayer();
+        Location location;
+        if (coordinates != null) {
+            World world = (player != null ? player.getWorld()
+                    : getWorld(sender));
+            if (world == null) {
+                return null;
+            }
+            location = new Location(world, coordinates.getX(),
+                    coordinates.getY(), coordinates.getZ());
+        } else if (player != null) {
+            location = player.getLocation();
+        } else if (sender instanceof Player) {
+            location = ((Player) sender).getLocation();
+        } else if (sender instanceof BlockCommandSender) {
+            location = ((BlockCommandSender) sender).getBlock().getLocation();
+        } else {
+            return null;
+        }
+        if (relative != null) {
+            location.add(relative.getX(), relative.getY(), relative.getZ());
+        }
+        return location;
+    }
+    
+    /**
+     * Find the entity the plan targets: the player specified, or else the
+     * sender if they are a player.
+     * 
+     * @param sender
+     *            User sending command
+     * @return Targeted player, or null if there is none
+     */
+    public Player resolvePlayer(CommandSender sender) {
+        Player player = getPlayer();
+        if (player == null && sender instanceof Player) {
+            player = (Player) sender;
+        }
+        return player;
+    }
+    
+}
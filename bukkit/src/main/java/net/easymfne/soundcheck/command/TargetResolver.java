@@ -0,0 +1,95 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.easymfne.soundcheck.PlayerNames;
+import net.easymfne.soundcheck.datatype.Coordinates;
+import net.easymfne.soundcheck.datatype.RelativeCoordinates;
+
+
+/**
+ * Reads the arguments that say where a command plays something, shared by
+ * every command. A command offers each argument to the resolver first, then
+ * tries it as its own kind of argument, and finally builds a TargetPlan.
+ * 
+ * @author Eric Hildebrand
+ */
+public class TargetResolver {
+    
+    private final List<String> players = new ArrayList<String>();
+    private final List<String> others = new ArrayList<String>();
+    private Coordinates coordinates = null;
+    private RelativeCoordinates relative = null;
+    
+    /**
+     * Read an argument as an online player's name, coordinates, or relative
+     * coordinates, in that order. A later argument of the same kind replaces
+     * an earlier one. Each argument is looked up in the online-name index at
+     * most once, so names with any characters are found. An argument that
+     * is none of these but could be a name is remembered, in case a player
+     * with that name joins later.
+     * 
+     * @param arg
+     *            Argument
+     * @return Whether the argument was accepted
+     */
+    public boolean accept(String arg) {
+        if (PlayerNames.get(arg) != null) {
+            players.add(arg);
+            return true;
+        }
+        Coordinates parsedCoordinates = Coordinates.parse(arg);
+        if (parsedCoordinates != null) {
+            coordinates = parsedCoordinates;
+            return true;
+        }
+        RelativeCoordinates parsedRelative = RelativeCoordinates.parse(arg);
+        if (parsedRelative != null) {
+            relative = parsedRelative;
+            return true;
+        }
+        if (PlayerNames.isName(arg)) {
+            others.add(arg);
+        }
+        return false;
+    }
+    
+    /**
+     * Read an argument only as an online player's name.
+     * 
+     * @param arg
+     *            Argument
+     * @return Whether the argument was accepted
+     */
+    public boolean acceptPlayer(String arg) {
+        if (PlayerNames.get(arg) != null) {
+            players.add(arg);
+            return true;
+        }
+        others.add(arg);
+        return false;
+    }
+    
+    /**
+     * @return Plan of every argument accepted so far
+     */
+    public TargetPlan getPlan() {
+        return new TargetPlan(players, others, coordinates, relative);
+    }
+    
+}
@@ -14,9 +14,6 @@
  */
 package net.easymfne.soundcheck.datatype;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.bukkit.Location;
 import org.bukkit.World;
 
@@ -28,18 +25,18 @@ import org.bukkit.World;
  */
 public class Coordinates {
     
-    /* Regular expressions for matching Strings */
-    private static Pattern number = Pattern.compile("-?[0-9]+\\.?[0-9]*");
-    private static Pattern pattern = Pattern.compile("^(" + number.pattern()
-            + "),(" + number.pattern() + "),(" + number.pattern() + ")$");
-    
     /**
      * @param string
      *            Input string
      * @return Whether string matches the Coordinates format
      */
     public static boolean matches(String string) {
-        return pattern.matcher(string).matches();
+        int index = ArgumentScanner.scanDecimal(string, 0, true);
+        index = ArgumentScanner.scanSeparator(string, index, ',');
+        index = ArgumentScanner.scanDecimal(string, index, true);
+        index = ArgumentScanner.scanSeparator(string, index, ',');
+        return ArgumentScanner.scanDecimal(string, index, true) == string
+                .length();
     }
     
     /**
@@ -53,16 +50,22 @@ public class Coordinates {
      * @throws NumberFormatException
      */
     public static Coordinates parse(String string) throws NumberFormatException {
-        Matcher matcher = pattern.matcher(string);
-        if (!matcher.matches()) {
+        int xStart = 0;
+        int xEnd = ArgumentScanner.scanDecimal(string, xStart, true);
+        int yStart = ArgumentScanner.scanSeparator(string, xEnd, ',');
+        int yEnd = ArgumentScanner.scanDecimal(string, yStart, true);
+        int zStart = ArgumentScanner.scanSeparator(string, yEnd, ',');
+        int zEnd = ArgumentScanner.scanDecimal(string, zStart, true);
+        if (zEnd != string.length()) {
             return null;
         }
-        return new Coordinates(Double.parseDouble(matcher.group(1)),
-                Double.parseDouble(matcher.group(2)),
-                Double.parseDouble(matcher.group(3)));
+        return new Coordinates(
+                ArgumentScanner.parseDouble(string, xStart, xEnd),
+                ArgumentScanner.parseDouble(string, yStart, yEnd),
+                ArgumentScanner.parseDouble(string, zStart, zEnd));
     }
     
-    private double x, y, z;
+    private final double x, y, z;
     
     public Coordinates(double x, double y, double z) {
         this.x = x;
@@ -79,4 +82,25 @@ public class Coordinates {
         return new Location(world, x, y, z);
     }
     
+    /**
+     * @return X component
+     */
+    public double getX() {
+        return x;
+    }
+    
+    /**
+     * @return Y component
+     */
+    public double getY() {
+        return y;
+    }
+    
+    /**
+     * @return Z component
+     */
+    public double getZ() {
+        return z;
+    }
+    
 }
@@ -22,11 +22,11 @@ import org.bukkit.Location;
  * 
  * @author Eric Hildebrand *
  */
-public class Frame {
+public class Frame implements Score.Entry {
     
-    private int time;
-    private PlayableSound sound;
-    private PlayableEffect effect;
+    private final int time;
+    private final PlayableSound sound;
+    private final PlayableEffect effect;
     
     public Frame(int time, PlayableSound sound, PlayableEffect effect) {
         this.time = time;
@@ -34,9 +34,26 @@ public class Frame {
         this.effect = effect;
     }
     
+    /**
+     * @return PlayableEffect of the frame, or null if there is none
+     */
+    @Override
+    public PlayableEffect getEffect() {
+        return effect;
+    }
+    
+    /**
+     * @return PlayableSound of the frame, or null if there is none
+     */
+    @Override
+    public PlayableSound getSound() {
+        return sound;
+    }
+    
     /**
      * @return Time offset from start of Sequence (in ticks)
      */
+    @Override
     public int getTime() {
         return time;
     }
@@ -0,0 +1,171 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import net.easymfne.soundcheck.EmissionManager;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+
+/**
+ * Class that can detect, parse, and store all components of an Effect in the
+ * format "Effect effect,int data,int radius". PlayableEffects are immutable
+ * values, and parsed instances are interned. Parsing is done by the core's
+ * EffectSpec, which this adds the Bukkit Effect to.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayableEffect extends EffectSpec {
+    
+    /* Canonical instances shared by sequences and commands */
+    private static final Interner<PlayableEffect> pool =
+            new Interner<PlayableEffect>();
+    /* Cached enum values for resolving parsed ordinals */
+    private static final Effect[] values = Effect.values();
+    
+    private final Effect effect;
+    
+    /* Table for looking up effects by name, replaced on reload */
+    private static volatile NameTable<Effect> names =
+            new NameTable<Effect>(Effect.class);
+    
+    /**
+     * @return Table used to look up Effects by name
+     */
+    public static NameTable<Effect> getNames() {
+        return names;
+    }
+    
+    /**
+     * @param string
+     *            Input string
+     * @return Whether string matches the PlayableEffect format
+     */
+    public static boolean matches(String string) {
+        return EffectSpec.matches(string);
+    }
+    
+    /**
+     * Read PlayableEffect data from a string and return a new PlayableEffect
+     * using the data. Returns null when the input does not match the
+     * appropriate format or names an unknown effect.
+     * 
+     * @param string
+     *            Input string
+     * @return read PlayableEffect
+     * @throws NumberFormatException
+     *             if data or radius does not fit in an int
+     */
+    public static PlayableEffect parse(String string)
+            throws NumberFormatException {
+        return parse(string, names);
+    }
+    
+    /**
+     * Read PlayableEffect data from a string, looking up the effect in the
+     * given table rather than the current one.
+     * 
+     * @param string
+     *            Input string
+     * @param table
+     *            Table of effect names
+     * @return read PlayableEffect
+     * @throws NumberFormatException
+     *             if data or radius does not fit in an int
+     */
+    public static PlayableEffect parse(String string, NameTable<Effect> table)
+            throws NumberFormatException {
+        EffectSpec spec = EffectSpec.read(string, table);
+        if (spec == null) {
+            return null;
+        }
+        return new PlayableEffect(values[spec.getEffectId()], spec.getData(),
+                spec.getRadius()).intern();
+    }
+    
+    /**
+     * Replace the table used to look up Effects by name, such as when aliases
+     * are reloaded.
+     * 
+     * @param table
+     *            New table
+     */
+    public static void setNames(NameTable<Effect> table) {
+        names = table;
+    }
+    
+    /**
+     * Construct PlayableEffect with data=1 and radius=-1.
+     * 
+     * @param effect
+     *            Effect
+     */
+    public PlayableEffect(Effect effect) {
+        this(effect, 1, -1);
+    }
+    
+    /**
+     * Construct PlayableEffect with radius=-1.
+     * 
+     * @param effect
+     *            Effect
+     * @param data
+     *            Effect's data byte
+     */
+    public PlayableEffect(Effect effect, int data) {
+        this(effect, data, -1);
+    }
+    
+    /**
+     * @param effect
+     *            Effect
+     * @param data
+     *            Effect's data byte
+     * @param radius
+     *            Effect's radius
+     */
+    public PlayableEffect(Effect effect, int data, int radius) {
+        super(effect.ordinal(), data, radius);
+        this.effect = effect;
+    }
+    
+    /**
+     * @return Effect
+     */
+    public Effect getEffect() {
+        return effect;
+    }
+    
+    /**
+     * Get the canonical instance equal to this one, so that every use of the
+     * same effect, data, and radius shares one object.
+     * 
+     * @return Canonical PlayableEffect
+     */
+    public PlayableEffect intern() {
+        return pool.intern(this);
+    }
+    
+    /**
+     * Play the effect at a specified location.
+     * 
+     * @param location
+     *            Location
+     */
+    public void play(Location location) {
+        EmissionManager.playEffect(location, effect, getData(), getRadius());
+    }
+    
+}
@@ -14,9 +14,6 @@
  */
 package net.easymfne.soundcheck.datatype;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.bukkit.EntityEffect;
 import org.bukkit.entity.Entity;
 
@@ -28,10 +25,16 @@ import org.bukkit.entity.Entity;
  */
 public class PlayableEntityEffect {
     
-    /* Regular expressions for matching Strings */
-    private static Pattern name = Pattern.compile("[A-Z0-9_]+");
-    private static Pattern pattern = Pattern.compile("^(" + name.pattern()
-            + ")$");
+    /* Table for looking up entity effects by name, replaced on reload */
+    private static NameTable<EntityEffect> names = new NameTable<EntityEffect>(
+            EntityEffect.class);
+    
+    /**
+     * @return Table used to look up EntityEffects by name
+     */
+    public static NameTable<EntityEffect> getNames() {
+        return names;
+    }
     
     /**
      * @param string
@@ -39,22 +42,33 @@ public class PlayableEntityEffect {
      * @return Whether string matches the PlayableEntityEffect format
      */
     public static boolean matches(String string) {
-        return pattern.matcher(string).matches();
+        return ArgumentScanner.scanName(string, 0) == string.length();
     }
     
     /**
      * Read PlayableEntityEffect data from a string and return a new
-     * PlayableEntityEffect using the data.
+     * PlayableEntityEffect using the data. Returns null when the input names
+     * an unknown entity effect.
      * 
      * @param string
      *            Input string
-     * @return read PlayableSound
-     * @throws IllegalArgumentException
+     * @return read PlayableEntityEffect
+     */
+    public static PlayableEntityEffect parse(String string) {
+        EntityEffect entityEffect = names.get(string);
+        return (entityEffect == null ? null : new PlayableEntityEffect(
+                entityEffect));
+    }
+    
+    /**
+     * Replace the table used to look up EntityEffects by name, such as when
+     * aliases are reloaded.
+     * 
+     * @param table
+     *            New table
      */
-    public static PlayableEntityEffect parse(String string)
-            throws IllegalArgumentException {
-        Matcher matcher = pattern.matcher(string);
-        return new PlayableEntityEffect(EntityEffect.valueOf(matcher.group(1)));
+    public static void setNames(NameTable<EntityEffect> table) {
+        names = table;
     }
     
     private EntityEffect entityEffect;
@@ -0,0 +1,165 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import net.easymfne.soundcheck.EmissionManager;
+
+import org.bukkit.Location;
+import org.bukkit.Sound;
+
+/**
+ * Class that can detect, parse, and store all components of a Sound in the
+ * format "Sound sound,float volume,float pitch". PlayableSounds are immutable
+ * values, and parsed instances are interned. Parsing is done by the core's
+ * SoundSpec, which this adds the Bukkit Sound to.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayableSound extends SoundSpec {
+    
+    /* Table for looking up sounds by name, replaced on reload */
+    private static volatile NameTable<Sound> names = new NameTable<Sound>(
+            Sound.class);
+    
+    /**
+     * @return Table used to look up Sounds by name
+     */
+    public static NameTable<Sound> getNames() {
+        return names;
+    }
+    
+    /**
+     * @param string
+     *            Input string
+     * @return Whether string matches the PlayableSound format
+     */
+    public static boolean matches(String string) {
+        return SoundSpec.matches(string);
+    }
+    
+    /**
+     * Read PlayableSound data from a string and return a new PlayableSound
+     * using the data. Returns null when the input does not match the
+     * appropriate format or names an unknown sound.
+     * 
+     * @param string
+     *            Input string
+     * @return read PlayableSound
+     */
+    public static PlayableSound parse(String string) {
+        return parse(string, names);
+    }
+    
+    /**
+     * Read PlayableSound data from a string, looking up the sound in the
+     * given table rather than the current one.
+     * 
+     * @param string
+     *            Input string
+     * @param table
+     *            Table of sound names
+     * @return read PlayableSound
+     */
+    public static PlayableSound parse(String string, NameTable<Sound> table) {
+        SoundSpec spec = SoundSpec.read(string, table);
+        if (spec == null) {
+            return null;
+        }
+        return new PlayableSound(values[spec.getSoundId()], spec.getVolume(),
+                spec.getPitch()).intern();
+    }
+    
+    /**
+     * Replace the table used to look up Sounds by name, such as when aliases
+     * are reloaded.
+     * 
+     * @param table
+     *            New table
+     */
+    public static void setNames(NameTable<Sound> table) {
+        names = table;
+    }
+    
+    /* Canonical instances shared by sequences and commands */
+    private static final Interner<PlayableSound> pool =
+            new Interner<PlayableSound>();
+    /* Cached enum values for resolving parsed ordinals */
+    private static final Sound[] values = Sound.values();
+    
+    private final Sound sound;
+    
+    /**
+     * Construct PlayableSound with volume=1.0 and pitch=1.0.
+     * 
+     * @param sound
+     *            Sound
+     */
+    public PlayableSound(Sound sound) {
+        this(sound, 1f, 1f);
+    }
+    
+    /**
+     * Construct PlayableSound with pitch=1.0.
+     * 
+     * @param sound
+     *            Sound
+     * @param volume
+     *            Volume
+     */
+    public PlayableSound(Sound sound, float volume) {
+        this(sound, volume, 1f);
+    }
+    
+    /**
+     * @param sound
+     *            Sound
+     * @param volume
+     *            Volume
+     * @param pitch
+     *            Pitch
+     */
+    public PlayableSound(Sound sound, float volume, float pitch) {
+        super(sound.ordinal(), volume, pitch);
+        this.sound = sound;
+    }
+    
+    /**
+     * @return Sound
+     */
+    public Sound getSound() {
+        return sound;
+    }
+    
+    /**
+     * Get the canonical instance equal to this one, so that every use of the
+     * same sound, volume, and pitch shares one object.
+     * 
+     * @return Canonical PlayableSound
+     */
+    public PlayableSound intern() {
+        return pool.intern(this);
+    }
+    
+    /**
+     * Play the sound at a specified location.
+     * 
+     * @param location
+     *            Location
+     */
+    public void play(Location location) {
+        EmissionManager.playSound(location, sound, getVolume(), getPitch());
+    }
+    
+}
@@ -14,9 +14,6 @@
  */
 package net.easymfne.soundcheck.datatype;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.bukkit.Location;
 
 /**
@@ -27,18 +24,19 @@ import org.bukkit.Location;
  */
 public class RelativeCoordinates {
     
-    /* Regular expressions for matching Strings */
-    private static Pattern number = Pattern.compile("-?[0-9]+\\.?[0-9]*");
-    private static Pattern pattern = Pattern.compile("^~(" + number.pattern()
-            + "),(" + number.pattern() + "),(" + number.pattern() + ")$");
-    
     /**
      * @param string
      *            Input string
      * @return Whether string matches the RelativeCoordinates format
      */
     public static boolean matches(String string) {
-        return pattern.matcher(string).matches();
+        int index = ArgumentScanner.scanSeparator(string, 0, '~');
+        index = ArgumentScanner.scanDecimal(string, index, true);
+        index = ArgumentScanner.scanSeparator(string, index, ',');
+        index = ArgumentScanner.scanDecimal(string, index, true);
+        index = ArgumentScanner.scanSeparator(string, index, ',');
+        return ArgumentScanner.scanDecimal(string, index, true) == string
+                .length();
     }
     
     /**
@@ -53,16 +51,22 @@ public class RelativeCoordinates {
      */
     public static RelativeCoordinates parse(String string)
             throws NumberFormatException {
-        Matcher matcher = pattern.matcher(string);
-        if (!matcher.matches()) {
+        int xStart = ArgumentScanner.scanSeparator(string, 0, '~');
+        int xEnd = ArgumentScanner.scanDecimal(string, xStart, true);
+        int yStart = ArgumentScanner.scanSeparator(string, xEnd, ',');
+        int yEnd = ArgumentScanner.scanDecimal(string, yStart, true);
+        int zStart = ArgumentScanner.scanSeparator(string, yEnd, ',');
+        int zEnd = ArgumentScanner.scanDecimal(string, zStart, true);
+        if (zEnd != string.length()) {
             return null;
         }
-        return new RelativeCoordinates(Double.parseDouble(matcher.group(1)),
-                Double.parseDouble(matcher.group(2)),
-                Double.parseDouble(matcher.group(3)));
+        return new RelativeCoordinates(ArgumentScanner.parseDouble(string,
+                xStart, xEnd),
+                ArgumentScanner.parseDouble(string, yStart, yEnd),
+                ArgumentScanner.parseDouble(string, zStart, zEnd));
     }
     
-    private double x, y, z;
+    private final double x, y, z;
     
     public RelativeCoordinates(double x, double y, double z) {
         this.x = x;
@@ -79,4 +83,25 @@ public class RelativeCoordinates {
         return location.clone().add(x, y, z);
     }
     
+    /**
+     * @return X component
+     */
+    public double getX() {
+        return x;
+    }
+    
+    /**
+     * @return Y component
+     */
+    public double getY() {
+        return y;
+    }
+    
+    /**
+     * @return Z component
+     */
+    public double getZ() {
+        return z;
+    }
+    
 }
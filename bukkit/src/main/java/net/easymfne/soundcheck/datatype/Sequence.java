@@ -0,0 +1,202 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+
+import net.easymfne.soundcheck.EmissionManager;
+import net.easymfne.soundcheck.LoadMonitor;
+import net.easymfne.soundcheck.Playback;
+import net.easymfne.soundcheck.SequenceManager;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+
+/**
+ * Class that can parse and store all components of a Sequence, given its
+ * configuration. Sequences are immutable once constructed, so a compiled
+ * Sequence may be shared and played any number of times. Frames are compiled
+ * and packed by the core's Score; this adds the Bukkit side, turning frames
+ * back into interned sounds and effects where they are handed out, by
+ * getFrame(), and playing them at Locations through the EmissionManager.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Sequence extends Score {
+    
+    /**
+     * Parse an unnamed sequence and its frames from the values of its
+     * configuration node.
+     * 
+     * @param list
+     *            List of ConfigurationSections in Map form
+     * @return represented Sequence
+     */
+    public static Sequence parse(List<Map<?, ?>> list) {
+        return parse(null, list);
+    }
+    
+    /**
+     * Parse a sequence and its frames from the values of its configuration
+     * node.
+     * 
+     * @param name
+     *            Name of the sequence, may be null
+     * @param list
+     *            List of ConfigurationSections in Map form
+     * @return represented Sequence
+     */
+    public static Sequence parse(String name, List<Map<?, ?>> list) {
+        return parse(name, list, PlayableSound.getNames(),
+                PlayableEffect.getNames());
+    }
+    
+    /**
+     * Parse a sequence and its frames from the values of its configuration
+     * node, looking up sounds and effects in the given tables rather than the
+     * current ones.
+     * 
+     * @param name
+     *            Name of the sequence, may be null
+     * @param list
+     *            List of ConfigurationSections in Map form
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     * @return represented Sequence
+     */
+    public static Sequence parse(String name, List<Map<?, ?>> list,
+            NameTable<Sound> soundNames, NameTable<Effect> effectNames) {
+        return new Sequence(name, Score.parseFrames(list, soundNames,
+                effectNames));
+    }
+    
+    /* Cached enum values for resolving stored ordinals */
+    private static final Sound[] soundValues = Sound.values();
+    private static final Effect[] effectValues = Effect.values();
+    
+    /**
+     * Construct an unnamed sequence with given list of Frames, which are
+     * sorted by time.
+     * 
+     * @param frameList
+     *            Frames
+     */
+    public Sequence(List<? extends Score.Entry> frameList) {
+        this(null, frameList);
+    }
+    
+    /**
+     * Construct with given name and list of Frames, which are sorted by time.
+     * 
+     * @param name
+     *            Name of the sequence, may be null
+     * @param frameList
+     *            Frames
+     */
+    public Sequence(String name, List<? extends Score.Entry> frameList) {
+        super(name, frameList);
+    }
+    
+    /**
+     * Build a Frame object describing one frame of the sequence, with
+     * interned sound and effect.
+     * 
+     * @param index
+     *            Frame index, in order of time
+     * @return Frame at the given index
+     */
+    public Frame getFrame(int index) {
+        PlayableSound sound = null;
+        if (getSoundId(index) >= 0) {
+            sound = new PlayableSound(soundValues[getSoundId(index)],
+                    getVolume(index), getPitch(index)).intern();
+        }
+        PlayableEffect effect = null;
+        if (getEffectId(index) >= 0) {
+            effect = new PlayableEffect(effectValues[getEffectId(index)],
+                    getEffectData(index), getRadius(index)).intern();
+        }
+        return new Frame(getTime(index), sound, effect);
+    }
+    
+    /**
+     * @return List of Frames for the sequence, in order of time, each built
+     *         when it is read
+     * @deprecated Use getFrameCount() and getFrame(int) instead
+     */
+    @Deprecated
+    public List<Frame> getFrameList() {
+        return new AbstractList<Frame>() {
+            @Override
+            public Frame get(int index) {
+                return getFrame(index);
+            }
+            
+            @Override
+            public int size() {
+                return getFrameCount();
+            }
+        };
+    }
+    
+    /**
+     * Play the sound and/or effect of one frame at the specified location.
+     * 
+     * @param index
+     *            Frame index, in order of time
+     * @param location
+     *            Location
+     */
+    public void playFrame(int index, Location location) {
+        playFrame(index, location, LoadMonitor.FULL);
+    }
+    
+    /**
+     * Play the sound and/or effect of one frame at the specified location,
+     * degraded according to the given LoadMonitor level. The frame is a batch
+     * of its own, so it is never merged with earlier emissions.
+     * 
+     * @param index
+     *            Frame index, in order of time
+     * @param location
+     *            Location
+     * @param level
+     *            Degradation level
+     * @return Number of emissions that were skipped
+     */
+    public int playFrame(int index, Location location, int level) {
+        EmissionManager.getEmitter().startBatch();
+        return playFrame(index, EmissionManager.getEmitter(),
+                location.getWorld(), location.getX(), location.getY(),
+                location.getZ(), level);
+    }
+    
+    /**
+     * Queue the sequence to be played at a specified location.
+     * 
+     * @param location
+     *            Location
+     * @return Handle for controlling the playback
+     */
+    public Playback play(Location location) {
+        return SequenceManager.queueSequence(this, location);
+    }
+    
+}
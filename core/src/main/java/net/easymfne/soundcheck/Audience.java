@@ -0,0 +1,98 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.UUID;
+
+/**
+ * The players (P) in worlds (W) that an Emitter sends to directly, as seen
+ * from the core. An audience knows where each player is, whether they have
+ * opted out, and how to send one of them a sound or effect, and is how
+ * AUDIENCE mode reaches players.
+ * 
+ * @author Eric Hildebrand
+ */
+public interface Audience<W, P> {
+    
+    /**
+     * @param player
+     *            Player
+     * @return Unique ID of the player
+     */
+    public UUID getId(P player);
+    
+    /**
+     * @param player
+     *            Player
+     * @return Whether the player has opted out of sounds and effects
+     */
+    public boolean isMuted(P player);
+    
+    /**
+     * Find where a player currently is.
+     * 
+     * @param player
+     *            Player
+     * @param position
+     *            Array the X, Y, and Z coordinates are written to
+     * @return World the player is in
+     */
+    public W locate(P player, double[] position);
+    
+    /**
+     * Send an effect to one player.
+     * 
+     * @param player
+     *            Player
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param effect
+     *            Effect ordinal
+     * @param data
+     *            Effect's data byte
+     */
+    public void playEffect(P player, W world, double x, double y, double z,
+            int effect, int data);
+    
+    /**
+     * Send a sound to one player.
+     * 
+     * @param player
+     *            Player
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param sound
+     *            Sound ordinal
+     * @param volume
+     *            Volume
+     * @param pitch
+     *            Pitch
+     */
+    public void playSound(P player, W world, double x, double y, double z,
+            int sound, float volume, float pitch);
+    
+}
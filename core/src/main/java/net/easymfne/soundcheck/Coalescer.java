@@ -0,0 +1,165 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the emissions made during the current generation, such as one
+ * engine tick, so that identical emissions close to one another can be merged
+ * into one. An emission is identified by a type and two integer parameters;
+ * entries with the same identity are chained together in a small hash table,
+ * so a check only looks at emissions that could be duplicates. Entries left
+ * from an earlier generation are treated as empty and dropped by the next
+ * check, so nothing has to clear the table between generations. Worlds (W)
+ * are compared by identity.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Coalescer<W> {
+    
+    private static final int buckets = 256;
+    
+    /* Index + 1 of the newest entry in each bucket, 0 when empty */
+    private final int[] heads = new int[buckets];
+    private int[] next = new int[64];
+    private int[] types = new int[64];
+    private int[] firsts = new int[64];
+    private int[] seconds = new int[64];
+    private Object[] worlds = new Object[64];
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private double[] zs = new double[64];
+    private int count = 0;
+    private double distanceSquared = -1.0;
+    /* Current generation, and the generation the entries were recorded in */
+    private long generation = 0;
+    private long stamp = 0;
+    
+    /**
+     * Forget every emission recorded so far.
+     */
+    public void clear() {
+        if (count > 0) {
+            Arrays.fill(heads, 0);
+            Arrays.fill(worlds, 0, count, null);
+            count = 0;
+        }
+    }
+    
+    /**
+     * Make room for at least one more entry.
+     */
+    private void grow() {
+        int capacity = next.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        types = Arrays.copyOf(types, capacity);
+        firsts = Arrays.copyOf(firsts, capacity);
+        seconds = Arrays.copyOf(seconds, capacity);
+        worlds = Arrays.copyOf(worlds, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+    }
+    
+    /**
+     * @return Whether coalescing is enabled
+     */
+    public boolean isEnabled() {
+        return distanceSquared >= 0.0;
+    }
+    
+    /**
+     * @return Whether no emissions have been recorded in this generation
+     */
+    public boolean isEmpty() {
+        return count == 0 || stamp != generation;
+    }
+    
+    /**
+     * Start a new generation, after which emissions recorded so far are no
+     * longer matched.
+     */
+    public void nextGeneration() {
+        generation++;
+    }
+    
+    /**
+     * Check an emission against those already recorded in this generation. If
+     * an identical one was recorded within the merge distance, the new
+     * emission should be skipped; otherwise it is recorded.
+     * 
+     * @param type
+     *            Kind of emission, such as a sound or effect ordinal
+     * @param first
+     *            First parameter, such as volume bits or effect data
+     * @param second
+     *            Second parameter, such as pitch bits or effect radius
+     * @param world
+     *            World the emission is played in
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @return Whether the emission duplicates one already recorded
+     */
+    public boolean offer(int type, int first, int second, W world, double x,
+            double y, double z) {
+        if (stamp != generation) {
+            clear();
+            stamp = generation;
+        }
+        int hash = type * 31 * 31 + first * 31 + second;
+        int bucket = (hash ^ (hash >>> 16)) & (buckets - 1);
+        for (int i = heads[bucket] - 1; i >= 0; i = next[i] - 1) {
+            if (types[i] == type && firsts[i] == first
+                    && seconds[i] == second && worlds[i] == world) {
+                double dx = xs[i] - x;
+                double dy = ys[i] - y;
+                double dz = zs[i] - z;
+                if (dx * dx + dy * dy + dz * dz <= distanceSquared) {
+                    return true;
+                }
+            }
+        }
+        if (count == next.length) {
+            grow();
+        }
+        types[count] = type;
+        firsts[count] = first;
+        seconds[count] = second;
+        worlds[count] = world;
+        xs[count] = x;
+        ys[count] = y;
+        zs[count] = z;
+        next[count] = heads[bucket];
+        heads[bucket] = ++count;
+        return false;
+    }
+    
+    /**
+     * Set the distance within which identical emissions are merged.
+     * 
+     * @param distance
+     *            Merge distance, or a negative number to disable merging
+     */
+    public void setDistance(double distance) {
+        distanceSquared = (distance < 0.0 ? -1.0 : distance * distance);
+        clear();
+    }
+    
+}
@@ -0,0 +1,292 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.easymfne.soundcheck.Statistics.Counter;
+
+/**
+ * This class is used for emitting every sound and effect the plugin plays, in
+ * worlds (W) reached through a Venue and to players (P) reached through an
+ * Audience. In BROADCAST mode the venue decides who receives them. In
+ * AUDIENCE mode the audience is worked out once per emission from the
+ * PlayerIndex and each player in range, who has not opted out, is sent the
+ * sound or effect directly. In either mode, identical emissions close
+ * together in the same batch are merged into one. The engine starts a batch
+ * each tick, and callers playing single emissions start one per call.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Emitter<W, P> {
+    
+    /**
+     * How sounds and effects are delivered to players.
+     */
+    public enum Mode {
+        /** Let the world send to every player that can hear or see it */
+        BROADCAST,
+        /** Send only to players in range that have not opted out */
+        AUDIENCE
+    }
+    
+    /** Radius the server uses for effects played without one */
+    public static final int DEFAULT_EFFECT_RADIUS = 64;
+    /* Distance a sound of volume 1.0 can be heard from */
+    private static final double soundRange = 16.0;
+    
+    private final Venue<W> venue;
+    private final Audience<W, P> audience;
+    private final PlayerIndex<W, P> playerIndex;
+    private Mode mode = Mode.BROADCAST;
+    private final Coalescer<W> coalescer = new Coalescer<W>();
+    private final Map<UUID, long[]> viewerPackets = new HashMap<UUID, long[]>();
+    private final List<P> nearby = new ArrayList<P>();
+    
+    /**
+     * @param venue
+     *            Venue that plays emissions in BROADCAST mode
+     * @param audience
+     *            Audience that receives emissions in AUDIENCE mode
+     */
+    public Emitter(Venue<W> venue, Audience<W, P> audience) {
+        this.venue = venue;
+        this.audience = audience;
+        playerIndex = new PlayerIndex<W, P>(audience);
+    }
+    
+    /**
+     * Clear per-viewer counts, the PlayerIndex, and the coalescer, and return
+     * to BROADCAST mode.
+     */
+    public void close() {
+        viewerPackets.clear();
+        nearby.clear();
+        playerIndex.clear();
+        coalescer.clear();
+        mode = Mode.BROADCAST;
+    }
+    
+    /**
+     * Collect the players who should receive an emission into the shared
+     * list of nearby players, leaving out players who have opted out.
+     * 
+     * @param world
+     *            World the emission is played in
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param range
+     *            Distance the emission reaches
+     */
+    private void findAudience(W world, double x, double y, double z,
+            double range) {
+        nearby.clear();
+        playerIndex.getNearby(world, x, y, z, range, nearby);
+        for (int i = nearby.size() - 1; i >= 0; i--) {
+            if (audience.isMuted(nearby.get(i))) {
+                nearby.remove(i);
+            }
+        }
+    }
+    
+    /**
+     * Forget the per-viewer count of a player, such as when they leave.
+     * 
+     * @param player
+     *            Player
+     */
+    public void forget(P player) {
+        viewerPackets.remove(audience.getId(player));
+    }
+    
+    /**
+     * @return Coalescer used to merge duplicate emissions
+     */
+    public Coalescer<W> getCoalescer() {
+        return coalescer;
+    }
+    
+    /**
+     * @return Current emission mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * @param player
+     *            Player
+     * @return Number of sounds and effects sent directly to the player
+     */
+    public long getPacketCount(P player) {
+        long[] count = viewerPackets.get(audience.getId(player));
+        return (count == null ? 0L : count[0]);
+    }
+    
+    /**
+     * @return Index of the players that AUDIENCE mode sends to
+     */
+    public PlayerIndex<W, P> getPlayerIndex() {
+        return playerIndex;
+    }
+    
+    /**
+     * Check whether an emission duplicates one already made nearby during
+     * this batch, counting it if so.
+     * 
+     * @param type
+     *            Kind of emission
+     * @param first
+     *            First parameter of the emission
+     * @param second
+     *            Second parameter of the emission
+     * @param world
+     *            World the emission is played in
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @return Whether the emission should be skipped
+     */
+    private boolean isDuplicate(int type, int first, int second, W world,
+            double x, double y, double z) {
+        if (!coalescer.isEnabled()) {
+            return false;
+        }
+        if (coalescer.offer(type, first, second, world, x, y, z)) {
+            Statistics.increment(Counter.COALESCED);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Play an effect at a point.
+     * 
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param effect
+     *            Effect ordinal
+     * @param data
+     *            Effect's data byte
+     * @param radius
+     *            Effect's radius, or -1 for the default radius
+     */
+    public void playEffect(W world, double x, double y, double z, int effect,
+            int data, int radius) {
+        if (isDuplicate(-1 - effect, data, radius, world, x, y, z)) {
+            return;
+        }
+        if (mode == Mode.BROADCAST) {
+            venue.playEffect(world, x, y, z, effect, data, radius);
+            return;
+        }
+        findAudience(world, x, y, z, (radius < 0 ? DEFAULT_EFFECT_RADIUS
+                : radius));
+        for (int i = 0; i < nearby.size(); i++) {
+            P player = nearby.get(i);
+            audience.playEffect(player, world, x, y, z, effect, data);
+            record(player);
+        }
+        nearby.clear();
+    }
+    
+    /**
+     * Play a sound at a point.
+     * 
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param sound
+     *            Sound ordinal
+     * @param volume
+     *            Volume
+     * @param pitch
+     *            Pitch
+     */
+    public void playSound(W world, double x, double y, double z, int sound,
+            float volume, float pitch) {
+        if (isDuplicate(sound, Float.floatToIntBits(volume),
+                Float.floatToIntBits(pitch), world, x, y, z)) {
+            return;
+        }
+        if (mode == Mode.BROADCAST) {
+            venue.playSound(world, x, y, z, sound, volume, pitch);
+            return;
+        }
+        findAudience(world, x, y, z, soundRange * Math.max(1f, volume));
+        for (int i = 0; i < nearby.size(); i++) {
+            P player = nearby.get(i);
+            audience.playSound(player, world, x, y, z, sound, volume, pitch);
+            record(player);
+        }
+        nearby.clear();
+    }
+    
+    /**
+     * Count one packet sent directly to a player.
+     * 
+     * @param player
+     *            Player
+     */
+    private void record(P player) {
+        UUID id = audience.getId(player);
+        long[] count = viewerPackets.get(id);
+        if (count == null) {
+            count = new long[1];
+            viewerPackets.put(id, count);
+        }
+        count[0]++;
+        Statistics.increment(Counter.PACKETS);
+    }
+    
+    /**
+     * @param mode
+     *            New emission mode
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+    
+    /**
+     * Start a new batch of emissions. Only emissions made in the same batch
+     * are merged, so a batch should not outlast the tick it was started in.
+     */
+    public void startBatch() {
+        coalescer.nextGeneration();
+    }
+    
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+/**
+ * Estimates server TPS from the time between ticks of an Engine's clock and
+ * turns it into a degradation level. Each level sheds more cosmetic output
+ * than the one before it.
+ * 
+ * @author Eric Hildebrand
+ */
+public class LoadMonitor {
+    
+    /** Play everything at full fidelity */
+    public static final int FULL = 0;
+    /** Halve the radius of effects */
+    public static final int SHRINK_RADIUS = 1;
+    /** Also skip effects entirely, playing only sounds */
+    public static final int DROP_EFFECTS = 2;
+    /** Also skip every other frame when several are due in the same tick */
+    public static final int THIN_FRAMES = 3;
+    
+    /* Weight of the newest interval in the moving average */
+    private static final double smoothing = 0.1;
+    private static final double tickMillis = 50.0;
+    
+    private boolean enabled = false;
+    private double shrinkRadiusTps, dropEffectsTps, thinFramesTps;
+    private double averageMillis = tickMillis;
+    private long lastTick = 0L;
+    private boolean measuring = false;
+    private int level = FULL;
+    
+    /**
+     * Set whether degradation is enabled and the TPS below which each level
+     * applies.
+     * 
+     * @param enabled
+     *            Whether to degrade at all
+     * @param shrinkRadiusTps
+     *            TPS below which effect radius is halved
+     * @param dropEffectsTps
+     *            TPS below which effects are skipped
+     * @param thinFramesTps
+     *            TPS below which dense frames are thinned
+     */
+    public void configure(boolean enabled, double shrinkRadiusTps,
+            double dropEffectsTps, double thinFramesTps) {
+        this.enabled = enabled;
+        this.shrinkRadiusTps = shrinkRadiusTps;
+        this.dropEffectsTps = dropEffectsTps;
+        this.thinFramesTps = thinFramesTps;
+        updateLevel();
+    }
+    
+    /**
+     * @return Current degradation level, from FULL to THIN_FRAMES
+     */
+    public int getLevel() {
+        return level;
+    }
+    
+    /**
+     * @return Estimated ticks per second, at most 20
+     */
+    public double getTps() {
+        return Math.min(20.0, 1000.0 / averageMillis);
+    }
+    
+    /**
+     * Forget previous measurements, such as when an Engine's clock is
+     * restarted after being idle.
+     */
+    public void reset() {
+        averageMillis = tickMillis;
+        measuring = false;
+        updateLevel();
+    }
+    
+    /**
+     * Record that a tick has started and update the degradation level.
+     * 
+     * @param now
+     *            Current time of the Engine's clock, in nanoseconds
+     */
+    public void tick(long now) {
+        if (measuring) {
+            double interval = (now - lastTick) / 1000000.0;
+            averageMillis += (interval - averageMillis) * smoothing;
+        }
+        lastTick = now;
+        measuring = true;
+        updateLevel();
+    }
+    
+    /**
+     * Recalculate the degradation level from the current TPS estimate.
+     */
+    private void updateLevel() {
+        double tps = getTps();
+        if (!enabled) {
+            level = FULL;
+        } else if (tps < thinFramesTps) {
+            level = THIN_FRAMES;
+        } else if (tps < dropEffectsTps) {
+            level = DROP_EFFECTS;
+        } else if (tps < shrinkRadiusTps) {
+            level = SHRINK_RADIUS;
+        } else {
+            level = FULL;
+        }
+    }
+    
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+/**
+ * Minimal open-addressing hash map from primitive long keys to objects, so
+ * that lookups never box their keys. Null values are not supported.
+ * 
+ * @author Eric Hildebrand
+ */
+public class LongObjectMap<V> {
+    
+    private long[] keys;
+    private Object[] values;
+    private int size = 0;
+    
+    public LongObjectMap() {
+        keys = new long[16];
+        values = new Object[16];
+    }
+    
+    /**
+     * @param key
+     *            Key
+     * @return Value for the key, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Associate a value with a key, replacing any previous value.
+     * 
+     * @param key
+     *            Key
+     * @param value
+     *            Value, not null
+     */
+    public void put(long key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+    
+    /**
+     * Remove the value for a key, if there is one.
+     * 
+     * @param key
+     *            Key
+     */
+    public void remove(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == null) {
+            return;
+        }
+        values[i] = null;
+        size--;
+        /* Shift later entries of the probe run back into the gap */
+        int gap = i;
+        for (i = (i + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            int home = slot(keys[i], mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                values[i] = null;
+                gap = i;
+            }
+        }
+    }
+    
+    /**
+     * Rehash every entry into tables of a new capacity.
+     * 
+     * @param capacity
+     *            New capacity, a power of two
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j], mask);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+    
+    /**
+     * @return Number of entries
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @param key
+     *            Key
+     * @param mask
+     *            Table capacity minus one
+     * @return Home slot of the key
+     */
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+}
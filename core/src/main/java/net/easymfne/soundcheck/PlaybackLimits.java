@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+/**
+ * Immutable set of caps on concurrent sequence playbacks, and the policy used
+ * when a new playback would exceed them. A cap of zero or less is unlimited.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlaybackLimits {
+    
+    /**
+     * What to do with a playback that would exceed a cap.
+     */
+    public enum Policy {
+        /** Refuse the new playback */
+        DROP,
+        /** Hold the new playback until there is room for it */
+        QUEUE,
+        /** Cancel the oldest playback that is in the way */
+        REPLACE
+    }
+    
+    /** Limits that never refuse a playback */
+    public static final PlaybackLimits UNLIMITED = new PlaybackLimits(0, 0, 0,
+            Policy.DROP, 0);
+    
+    private final int global, perWorld, perSequence;
+    private final Policy policy;
+    private final int queueSize;
+    
+    /**
+     * @param global
+     *            Maximum playbacks on the server
+     * @param perWorld
+     *            Maximum playbacks in any one world
+     * @param perSequence
+     *            Maximum playbacks of any one sequence
+     * @param policy
+     *            Policy for playbacks that exceed a cap
+     * @param queueSize
+     *            Maximum waiting playbacks under the QUEUE policy
+     */
+    public PlaybackLimits(int global, int perWorld, int perSequence,
+            Policy policy, int queueSize) {
+        this.global = global;
+        this.perWorld = perWorld;
+        this.perSequence = perSequence;
+        this.policy = policy;
+        this.queueSize = queueSize;
+    }
+    
+    /**
+     * @return Maximum playbacks on the server
+     */
+    public int getGlobal() {
+        return global;
+    }
+    
+    /**
+     * @return Maximum playbacks of any one sequence
+     */
+    public int getPerSequence() {
+        return perSequence;
+    }
+    
+    /**
+     * @return Maximum playbacks in any one world
+     */
+    public int getPerWorld() {
+        return perWorld;
+    }
+    
+    /**
+     * @return Policy for playbacks that exceed a cap
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+    
+    /**
+     * @return Maximum waiting playbacks under the QUEUE policy
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+    
+}
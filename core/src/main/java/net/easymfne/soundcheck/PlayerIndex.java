@@ -0,0 +1,279 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Spatial index of online players (P), bucketed by world (W) and chunk. It is
+ * kept up to date by whoever sees players move, and answers radius queries by
+ * looking only at the chunks that the radius covers. Where players actually
+ * are is asked of the Audience. Each entry knows its position in the lists
+ * that hold it, so moving or removing a player takes constant time.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayerIndex<W, P> {
+    
+    /**
+     * The players in one world, and the chunks they are in.
+     */
+    private static class Grid<W, P> {
+        private final LongObjectMap<List<Entry<W, P>>> cells =
+                new LongObjectMap<List<Entry<W, P>>>();
+        private final List<Entry<W, P>> players =
+                new ArrayList<Entry<W, P>>();
+    }
+    
+    /**
+     * Where a player is currently indexed, and at which positions of its
+     * world's and chunk's lists.
+     */
+    private static class Entry<W, P> {
+        private final P player;
+        private W world;
+        private long key;
+        private int slot;
+        private int cellSlot;
+        
+        private Entry(P player) {
+            this.player = player;
+        }
+    }
+    
+    /**
+     * @param x
+     *            Chunk X coordinate
+     * @param z
+     *            Chunk Z coordinate
+     * @return Key of the chunk within its world
+     */
+    private static long getKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+    
+    private final Audience<W, P> audience;
+    private final Map<W, Grid<W, P>> grids = new HashMap<W, Grid<W, P>>();
+    private final Map<UUID, Entry<W, P>> entries =
+            new HashMap<UUID, Entry<W, P>>();
+    private final double[] scratch = new double[3];
+    
+    /**
+     * @param audience
+     *            Audience used to identify and locate players
+     */
+    public PlayerIndex(Audience<W, P> audience) {
+        this.audience = audience;
+    }
+    
+    /**
+     * Add the players of a list that are within a distance of a point.
+     * 
+     * @param players
+     *            Players to check
+     * @param world
+     *            World of the point
+     * @param x
+     *            X coordinate of the point
+     * @param y
+     *            Y coordinate of the point
+     * @param z
+     *            Z coordinate of the point
+     * @param radiusSquared
+     *            Square of the maximum distance
+     * @param result
+     *            List the players are added to
+     */
+    private void addWithin(List<Entry<W, P>> players, W world, double x,
+            double y, double z, double radiusSquared, List<P> result) {
+        for (int i = 0; i < players.size(); i++) {
+            P player = players.get(i).player;
+            if (audience.locate(player, scratch) != world) {
+                continue;
+            }
+            double dx = scratch[0] - x;
+            double dy = scratch[1] - y;
+            double dz = scratch[2] - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                result.add(player);
+            }
+        }
+    }
+    
+    /**
+     * Remove every player from the index.
+     */
+    public void clear() {
+        grids.clear();
+        entries.clear();
+    }
+    
+    /**
+     * Find every indexed player within a distance of a point, in the same
+     * world.
+     * 
+     * @param world
+     *            World of the point
+     * @param x
+     *            X coordinate of the point
+     * @param y
+     *            Y coordinate of the point
+     * @param z
+     *            Z coordinate of the point
+     * @param radius
+     *            Maximum distance
+     * @param result
+     *            List the players are added to
+     */
+    public void getNearby(W world, double x, double y, double z,
+            double radius, List<P> result) {
+        Grid<W, P> grid = grids.get(world);
+        if (grid == null) {
+            return;
+        }
+        double radiusSquared = radius * radius;
+        int minX = (int) Math.floor(x - radius) >> 4;
+        int maxX = (int) Math.floor(x + radius) >> 4;
+        int minZ = (int) Math.floor(z - radius) >> 4;
+        int maxZ = (int) Math.floor(z + radius) >> 4;
+        long cellCount = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (cellCount >= grid.players.size()) {
+            /* Fewer players than chunks to visit, so check them directly */
+            addWithin(grid.players, world, x, y, z, radiusSquared, result);
+            return;
+        }
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                List<Entry<W, P>> cell = grid.cells.get(getKey(cx, cz));
+                if (cell != null) {
+                    addWithin(cell, world, x, y, z, radiusSquared, result);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Remove a player from the index.
+     * 
+     * @param player
+     *            Player
+     */
+    public void remove(P player) {
+        Entry<W, P> entry = entries.remove(audience.getId(player));
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+    
+    /**
+     * @return Number of indexed players
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Remove an entry from the grid of its world, moving the last entry of
+     * each list into the place it leaves.
+     * 
+     * @param entry
+     *            Indexed player
+     */
+    private void unlink(Entry<W, P> entry) {
+        Grid<W, P> grid = grids.get(entry.world);
+        if (grid == null) {
+            return;
+        }
+        List<Entry<W, P>> cell = grid.cells.get(entry.key);
+        if (cell != null) {
+            Entry<W, P> last = cell.remove(cell.size() - 1);
+            if (last != entry) {
+                cell.set(entry.cellSlot, last);
+                last.cellSlot = entry.cellSlot;
+            }
+            if (cell.isEmpty()) {
+                grid.cells.remove(entry.key);
+            }
+        }
+        Entry<W, P> last = grid.players.remove(grid.players.size() - 1);
+        if (last != entry) {
+            grid.players.set(entry.slot, last);
+            last.slot = entry.slot;
+        }
+        if (grid.players.isEmpty()) {
+            grids.remove(entry.world);
+        }
+    }
+    
+    /**
+     * Add a player to the index at their current position, or move them there
+     * if they are already indexed.
+     * 
+     * @param player
+     *            Player
+     */
+    public void update(P player) {
+        W world = audience.locate(player, scratch);
+        update(player, world, scratch[0], scratch[2]);
+    }
+    
+    /**
+     * Record that a player is at a position. Does nothing unless the player
+     * has changed world or chunk since they were last indexed.
+     * 
+     * @param player
+     *            Player
+     * @param world
+     *            Player's new world
+     * @param x
+     *            Player's new X coordinate
+     * @param z
+     *            Player's new Z coordinate
+     */
+    public void update(P player, W world, double x, double z) {
+        long key = getKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4);
+        UUID id = audience.getId(player);
+        Entry<W, P> entry = entries.get(id);
+        if (entry == null) {
+            entry = new Entry<W, P>(player);
+            entries.put(id, entry);
+        } else if (entry.world == world && entry.key == key) {
+            return;
+        } else {
+            unlink(entry);
+        }
+        entry.world = world;
+        entry.key = key;
+        Grid<W, P> grid = grids.get(world);
+        if (grid == null) {
+            grid = new Grid<W, P>();
+            grids.put(world, grid);
+        }
+        List<Entry<W, P>> cell = grid.cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<Entry<W, P>>(4);
+            grid.cells.put(key, cell);
+        }
+        entry.cellSlot = cell.size();
+        cell.add(entry);
+        entry.slot = grid.players.size();
+        grid.players.add(entry);
+    }
+    
+}
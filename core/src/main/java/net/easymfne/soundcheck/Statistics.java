@@ -0,0 +1,89 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+/**
+ * Utility class for counting notable events, such as playbacks refused by the
+ * configured limits. Counters are kept since the plugin was enabled.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Statistics {
+    
+    /**
+     * Events that are counted.
+     */
+    public enum Counter {
+        DROPPED("Sequences dropped by limits"),
+        QUEUED("Sequences queued by limits"),
+        REPLACED("Sequences replaced by limits"),
+        SHED("Emissions shed under load"),
+        PACKETS("Emissions sent directly to players"),
+        COALESCED("Duplicate emissions merged"),
+        THROTTLED("Commands refused by rate limits");
+        
+        private final String description;
+        
+        private Counter(String description) {
+            this.description = description;
+        }
+        
+        /**
+         * @return Human-readable description of the counter
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+    
+    private static final long[] counts = new long[Counter.values().length];
+    
+    /**
+     * @param counter
+     *            Counter to increase
+     * @param amount
+     *            Amount to add
+     */
+    public static void add(Counter counter, long amount) {
+        counts[counter.ordinal()] += amount;
+    }
+    
+    /**
+     * @param counter
+     *            Counter
+     * @return Current value of the counter
+     */
+    public static long get(Counter counter) {
+        return counts[counter.ordinal()];
+    }
+    
+    /**
+     * @param counter
+     *            Counter to increase by one
+     */
+    public static void increment(Counter counter) {
+        counts[counter.ordinal()]++;
+    }
+    
+    /**
+     * Set every counter back to zero.
+     */
+    public static void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0L;
+        }
+    }
+    
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+/**
+ * Table of token buckets keyed by primitive longs. Each bucket holds up to a
+ * burst of tokens and refills at a steady rate; taking a token is a single
+ * open-addressing lookup that does not allocate. Buckets that have refilled
+ * completely are idle and are purged when the table fills up.
+ * 
+ * @author Eric Hildebrand
+ */
+public class TokenBuckets {
+    
+    private final double burst;
+    private final double perNano;
+    private long[] keys;
+    private boolean[] used;
+    private double[] tokens;
+    private long[] updated;
+    private int size = 0;
+    private long throttled = 0L;
+    
+    /**
+     * @param burst
+     *            Most tokens a bucket can hold
+     * @param perSecond
+     *            Tokens added to each bucket per second
+     */
+    public TokenBuckets(double burst, double perSecond) {
+        this.burst = burst;
+        this.perNano = perSecond / 1000000000.0;
+        allocate(64);
+    }
+    
+    /**
+     * Replace the tables with empty ones of the given capacity.
+     * 
+     * @param capacity
+     *            Capacity, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        tokens = new double[capacity];
+        updated = new long[capacity];
+        size = 0;
+    }
+    
+    /**
+     * Count the buckets that cannot currently provide a token.
+     * 
+     * @param now
+     *            Current time, from System.nanoTime()
+     * @return Number of empty buckets
+     */
+    public int countEmpty(long now) {
+        int empty = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i] && refill(i, now) < 1.0) {
+                empty++;
+            }
+        }
+        return empty;
+    }
+    
+    /**
+     * @return Most tokens a bucket can hold
+     */
+    public double getBurst() {
+        return burst;
+    }
+    
+    /**
+     * @return Tokens added to each bucket per second
+     */
+    public double getPerSecond() {
+        return perNano * 1000000000.0;
+    }
+    
+    /**
+     * @return Number of requests refused since the table was created
+     */
+    public long getThrottled() {
+        return throttled;
+    }
+    
+    /**
+     * Rebuild the table without its idle buckets, growing it if most of the
+     * buckets are still in use.
+     * 
+     * @param now
+     *            Current time, from System.nanoTime()
+     */
+    private void purge(long now) {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        double[] oldTokens = tokens;
+        long[] oldUpdated = updated;
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i] && refill(i, now) < burst) {
+                live++;
+            }
+        }
+        allocate(live * 4 > oldKeys.length ? oldKeys.length * 2
+                : oldKeys.length);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldUsed[j] && oldTokens[j] < burst) {
+                int i = slot(oldKeys[j]);
+                keys[i] = oldKeys[j];
+                used[i] = true;
+                tokens[i] = oldTokens[j];
+                updated[i] = oldUpdated[j];
+                size++;
+            }
+        }
+    }
+    
+    /**
+     * Bring a bucket's tokens up to date.
+     * 
+     * @param i
+     *            Slot of the bucket
+     * @param now
+     *            Current time, from System.nanoTime()
+     * @return Tokens now in the bucket
+     */
+    private double refill(int i, long now) {
+        tokens[i] = Math.min(burst, tokens[i] + (now - updated[i]) * perNano);
+        updated[i] = now;
+        return tokens[i];
+    }
+    
+    /**
+     * @return Number of buckets in the table
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Find the slot holding a key, or the empty slot where it belongs.
+     * 
+     * @param key
+     *            Key
+     * @return Slot index
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int i = (int) (hash ^ (hash >>> 32)) & mask;
+        while (used[i] && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+    
+    /**
+     * Take a token from the bucket for a key, creating a full bucket if the
+     * key has none.
+     * 
+     * @param key
+     *            Key
+     * @param now
+     *            Current time, from System.nanoTime()
+     * @return Whether a token was available
+     */
+    public boolean tryAcquire(long key, long now) {
+        int i = slot(key);
+        if (!used[i]) {
+            if ((size + 1) * 2 > keys.length) {
+                purge(now);
+                i = slot(key);
+            }
+            keys[i] = key;
+            used[i] = true;
+            tokens[i] = burst;
+            updated[i] = now;
+            size++;
+        }
+        if (refill(i, now) >= 1.0) {
+            tokens[i] -= 1.0;
+            return true;
+        }
+        throttled++;
+        return false;
+    }
+    
+}
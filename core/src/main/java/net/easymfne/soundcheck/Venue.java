@@ -0,0 +1,69 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+/**
+ * The worlds (W) an Emitter plays in, as seen from the core. A venue plays
+ * sounds and effects for everyone in a world who can hear or see them, and
+ * is how BROADCAST mode reaches players. Sounds and effects are identified
+ * by the ordinals of the server's enums.
+ * 
+ * @author Eric Hildebrand
+ */
+public interface Venue<W> {
+    
+    /**
+     * Play an effect for everyone nearby.
+     * 
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param effect
+     *            Effect ordinal
+     * @param data
+     *            Effect's data byte
+     * @param radius
+     *            Effect's radius, or -1 for the default radius
+     */
+    public void playEffect(W world, double x, double y, double z, int effect,
+            int data, int radius);
+    
+    /**
+     * Play a sound for everyone nearby.
+     * 
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param sound
+     *            Sound ordinal
+     * @param volume
+     *            Volume
+     * @param pitch
+     *            Pitch
+     */
+    public void playSound(W world, double x, double y, double z, int sound,
+            float volume, float pitch);
+    
+}
@@ -0,0 +1,235 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+/**
+ * Hand-written scanners for the pieces of command arguments, used in place of
+ * regular expressions. Each scan method returns the index just past what it
+ * matched, or -1 if nothing matched, and passes a -1 start through, so scans
+ * can be chained and an argument checked and read in a single pass without
+ * creating substrings.
+ * 
+ * @author Eric Hildebrand
+ */
+final class ArgumentScanner {
+    
+    /* Largest mantissas that convert to a double or float without rounding */
+    private static final long DOUBLE_EXACT = 1L << 53;
+    private static final long FLOAT_EXACT = 1L << 24;
+    
+    /* Powers of ten that are exact as a double, and as a float up to 1e10 */
+    private static final double[] POWERS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5,
+            1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+            1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final int FLOAT_POWERS = 10;
+    
+    /**
+     * Match a number of the form "-?[0-9]+\.?[0-9]*", or "[0-9]+\.?[0-9]*"
+     * when unsigned.
+     * 
+     * @param string
+     *            Input string
+     * @param start
+     *            Index to start at, or -1
+     * @param signed
+     *            Whether a leading minus sign is allowed
+     * @return End of the number, or -1
+     */
+    static int scanDecimal(String string, int start, boolean signed) {
+        if (start < 0) {
+            return -1;
+        }
+        int index = start;
+        if (signed && index < string.length() && string.charAt(index) == '-') {
+            index++;
+        }
+        int end = scanDigits(string, index);
+        if (end < 0) {
+            return -1;
+        }
+        if (end < string.length() && string.charAt(end) == '.') {
+            end++;
+            while (end < string.length() && isDigit(string.charAt(end))) {
+                end++;
+            }
+        }
+        return end;
+    }
+    
+    /**
+     * Match a run of digits, "[0-9]+".
+     * 
+     * @param string
+     *            Input string
+     * @param start
+     *            Index to start at, or -1
+     * @return End of the digits, or -1
+     */
+    static int scanDigits(String string, int start) {
+        if (start < 0) {
+            return -1;
+        }
+        int end = start;
+        while (end < string.length() && isDigit(string.charAt(end))) {
+            end++;
+        }
+        return (end == start ? -1 : end);
+    }
+    
+    /**
+     * Match a name in either case, "[A-Za-z0-9_]+".
+     * 
+     * @param string
+     *            Input string
+     * @param start
+     *            Index to start at, or -1
+     * @return End of the name, or -1
+     */
+    static int scanName(String string, int start) {
+        if (start < 0) {
+            return -1;
+        }
+        int end = start;
+        while (end < string.length()) {
+            char c = string.charAt(end);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || isDigit(c)
+                    || c == '_')) {
+                break;
+            }
+            end++;
+        }
+        return (end == start ? -1 : end);
+    }
+    
+    /**
+     * Match a separator character.
+     * 
+     * @param string
+     *            Input string
+     * @param start
+     *            Index to start at, or -1
+     * @param separator
+     *            Expected character
+     * @return Index after the separator, or -1
+     */
+    static int scanSeparator(String string, int start, char separator) {
+        return (start >= 0 && start < string.length()
+                && string.charAt(start) == separator ? start + 1 : -1);
+    }
+    
+    /**
+     * Read a number previously matched by scanDecimal. The result is
+     * identical to Double.parseDouble, which is only called when the number
+     * cannot be converted exactly by hand.
+     * 
+     * @param string
+     *            Input string
+     * @param start
+     *            Start of the number
+     * @param end
+     *            End of the number
+     * @return Value
+     */
+    static double parseDouble(String string, int start, int end) {
+        long mantissa = 0;
+        int scale = -1;
+        boolean negative = string.charAt(start) == '-';
+        for (int i = (negative ? start + 1 : start); i < end; i++) {
+            char c = string.charAt(i);
+            if (c == '.') {
+                scale = 0;
+                continue;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (scale >= 0) {
+                scale++;
+            }
+            if (mantissa >= DOUBLE_EXACT || scale >= POWERS.length) {
+                return Double.parseDouble(string.substring(start, end));
+            }
+        }
+        double value = (scale > 0 ? mantissa / POWERS[scale] : mantissa);
+        return (negative ? -value : value);
+    }
+    
+    /**
+     * Read an unsigned number previously matched by scanDecimal. The result
+     * is identical to Float.parseFloat, which is only called when the number
+     * cannot be converted exactly by hand.
+     * 
+     * @param string
+     *            Input string
+     * @param start
+     *            Start of the number
+     * @param end
+     *            End of the number
+     * @return Value
+     */
+    static float parseFloat(String string, int start, int end) {
+        long mantissa = 0;
+        int scale = -1;
+        for (int i = start; i < end; i++) {
+            char c = string.charAt(i);
+            if (c == '.') {
+                scale = 0;
+                continue;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (scale >= 0) {
+                scale++;
+            }
+            if (mantissa >= FLOAT_EXACT || scale > FLOAT_POWERS) {
+                return Float.parseFloat(string.substring(start, end));
+            }
+        }
+        return (scale > 0 ? (float) mantissa / (float) POWERS[scale]
+                : (float) mantissa);
+    }
+    
+    /**
+     * Read digits previously matched by scanDigits.
+     * 
+     * @param string
+     *            Input string
+     * @param start
+     *            Start of the digits
+     * @param end
+     *            End of the digits
+     * @return Value
+     * @throws NumberFormatException
+     *             if the value does not fit in an int
+     */
+    static int parseInt(String string, int start, int end)
+            throws NumberFormatException {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = string.charAt(i) - '0';
+            if (value > (Integer.MAX_VALUE - digit) / 10) {
+                /* Throws with the same message as an ordinary parse */
+                return Integer.parseInt(string.substring(start, end));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private ArgumentScanner() {
+    }
+    
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+/**
+ * An effect, data byte, and radius in the format "Effect effect:int data:int
+ * radius", with the effect kept as the ordinal of the server's enum so that
+ * it can be parsed and played without the server's API. EffectSpecs are
+ * immutable values.
+ * 
+ * @author Eric Hildebrand
+ */
+public class EffectSpec {
+    
+    /**
+     * @param string
+     *            Input string
+     * @return Whether string matches the EffectSpec format
+     */
+    public static boolean matches(String string) {
+        int index = ArgumentScanner.scanName(string, 0);
+        index = ArgumentScanner.scanSeparator(string, index, ':');
+        index = ArgumentScanner.scanDigits(string, index);
+        index = ArgumentScanner.scanSeparator(string, index, ':');
+        return ArgumentScanner.scanDigits(string, index) == string.length();
+    }
+    
+    /**
+     * Read EffectSpec data from a string, looking up the effect in the given
+     * table. Returns null when the input does not match the appropriate
+     * format or names an unknown effect.
+     * 
+     * @param string
+     *            Input string
+     * @param table
+     *            Table of effect names
+     * @return read EffectSpec
+     * @throws NumberFormatException
+     *             if data or radius does not fit in an int
+     */
+    public static EffectSpec read(String string, NameTable<?> table)
+            throws NumberFormatException {
+        int nameEnd = ArgumentScanner.scanName(string, 0);
+        int dataStart = ArgumentScanner.scanSeparator(string, nameEnd, ':');
+        int dataEnd = ArgumentScanner.scanDigits(string, dataStart);
+        int radiusStart = ArgumentScanner.scanSeparator(string, dataEnd, ':');
+        int radiusEnd = ArgumentScanner.scanDigits(string, radiusStart);
+        if (radiusEnd != string.length()) {
+            return null;
+        }
+        Enum<?> effect = table.get(string, 0, nameEnd);
+        if (effect == null) {
+            return null;
+        }
+        return new EffectSpec(effect.ordinal(),
+                ArgumentScanner.parseInt(string, dataStart, dataEnd),
+                ArgumentScanner.parseInt(string, radiusStart, radiusEnd));
+    }
+    
+    private final int effect;
+    private final int data, radius;
+    
+    /**
+     * @param effect
+     *            Effect ordinal
+     * @param data
+     *            Effect's data byte
+     * @param radius
+     *            Effect's radius, or -1 for the default radius
+     */
+    public EffectSpec(int effect, int data, int radius) {
+        this.effect = effect;
+        this.data = data;
+        this.radius = radius;
+    }
+    
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof EffectSpec)) {
+            return false;
+        }
+        EffectSpec other = (EffectSpec) object;
+        return effect == other.effect && data == other.data
+                && radius == other.radius;
+    }
+    
+    /**
+     * @return Effect's data byte
+     */
+    public int getData() {
+        return data;
+    }
+    
+    /**
+     * @return Effect ordinal
+     */
+    public int getEffectId() {
+        return effect;
+    }
+    
+    /**
+     * @return Effect's radius, or -1 for the default radius
+     */
+    public int getRadius() {
+        return radius;
+    }
+    
+    @Override
+    public int hashCode() {
+        return (effect * 31 + data) * 31 + radius;
+    }
+    
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pool of canonical instances of an immutable value type. Instances are held
+ * weakly, so values that are no longer used by any sequence or command are
+ * still garbage collected.
+ * 
+ * @author Eric Hildebrand
+ */
+class Interner<T> {
+    
+    private final Map<T, WeakReference<T>> pool =
+            new WeakHashMap<T, WeakReference<T>>();
+    
+    /**
+     * @param value
+     *            Value
+     * @return Canonical instance equal to the value
+     */
+    synchronized T intern(T value) {
+        WeakReference<T> reference = pool.get(value);
+        T canonical = (reference == null ? null : reference.get());
+        if (canonical == null) {
+            pool.put(value, new WeakReference<T>(value));
+            canonical = value;
+        }
+        return canonical;
+    }
+    
+    /**
+     * @return Number of canonical instances currently pooled
+     */
+    synchronized int size() {
+        return pool.size();
+    }
+    
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, case-insensitive table of the names of an enum's constants, plus
+ * any aliases for them. Lookups return null for unknown names instead of
+ * throwing, and can read a name from part of a string without copying it.
+ * 
+ * @author Eric Hildebrand
+ */
+public class NameTable<E extends Enum<E>> {
+    
+    /* Upper case ASCII letters, leaving every other character alone */
+    private static char fold(char c) {
+        return (c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c);
+    }
+    
+    private static int hash(CharSequence name, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = hash * 31 + fold(name.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+    
+    /* Open addressing table of folded names and their constants */
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final List<String> names;
+    private final List<String> aliasNames;
+    private final PrefixTrie trie;
+    
+    /**
+     * Build a table of the names of every constant of an enum.
+     * 
+     * @param type
+     *            Enum class
+     */
+    public NameTable(Class<E> type) {
+        this(type, null);
+    }
+    
+    /**
+     * Build a table of the names of every constant of an enum, along with
+     * aliases for them. An alias for a name that is not a constant, such as a
+     * name from another server version, is left out.
+     * 
+     * @param type
+     *            Enum class
+     * @param aliases
+     *            Map of alias to constant name, may be null
+     */
+    public NameTable(Class<E> type, Map<String, String> aliases) {
+        E[] constants = type.getEnumConstants();
+        int size = constants.length + (aliases == null ? 0 : aliases.size());
+        int capacity = 16;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        List<String> names = new ArrayList<String>(constants.length);
+        for (E constant : constants) {
+            put(constant.name(), constant);
+            names.add(constant.name());
+        }
+        List<String> aliasNames = new ArrayList<String>();
+        if (aliases != null) {
+            for (Map.Entry<String, String> alias : aliases.entrySet()) {
+                E constant = get(alias.getValue());
+                if (constant != null && get(alias.getKey()) == null) {
+                    put(alias.getKey(), constant);
+                    aliasNames.add(alias.getKey());
+                }
+            }
+        }
+        this.names = Collections.unmodifiableList(names);
+        this.aliasNames = Collections.unmodifiableList(aliasNames);
+        List<String> all = new ArrayList<String>(names);
+        all.addAll(aliasNames);
+        this.trie = new PrefixTrie(all);
+    }
+    
+    /**
+     * @param name
+     *            Name or alias, in any case
+     * @return Matching constant, or null if the name is unknown
+     */
+    public E get(CharSequence name) {
+        return get(name, 0, name.length());
+    }
+    
+    /**
+     * Look up a name that is part of a longer string.
+     * 
+     * @param name
+     *            String containing the name
+     * @param start
+     *            Start of the name
+     * @param end
+     *            End of the name
+     * @return Matching constant, or null if the name is unknown
+     */
+    @SuppressWarnings("unchecked")
+    public E get(CharSequence name, int start, int end) {
+        int length = end - start;
+        for (int slot = hash(name, start, end) & mask;; slot = (slot + 1)
+                & mask) {
+            String key = keys[slot];
+            if (key == null) {
+                return null;
+            }
+            if (key.length() == length && regionEquals(key, name, start)) {
+                return (E) values[slot];
+            }
+        }
+    }
+    
+    /**
+     * @return Aliases that were added to the table
+     */
+    public List<String> getAliases() {
+        return aliasNames;
+    }
+    
+    /**
+     * @return Names of the enum's constants, in declaration order
+     */
+    public List<String> getNames() {
+        return names;
+    }
+    
+    /**
+     * @return Trie of every name and alias, for tab completion
+     */
+    public PrefixTrie getPrefixTrie() {
+        return trie;
+    }
+    
+    private void put(String name, E constant) {
+        int slot = hash(name, 0, name.length()) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        StringBuilder folded = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            folded.append(fold(name.charAt(i)));
+        }
+        keys[slot] = folded.toString();
+        values[slot] = constant;
+    }
+    
+    /* Compare a folded key with a region of a name, ignoring case */
+    private boolean regionEquals(String key, CharSequence name, int start) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != fold(name.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+}
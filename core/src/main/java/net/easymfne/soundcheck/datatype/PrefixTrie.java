@@ -0,0 +1,171 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, case-insensitive prefix trie for tab completion. The strings are
+ * kept in one sorted array, and each node of the trie covers the range of
+ * that array sharing its prefix, so a lookup walks the prefix and then copies
+ * out a slice of already sorted results.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PrefixTrie {
+    
+    /**
+     * Most completions returned by complete(String).
+     */
+    public static final int LIMIT = 50;
+    
+    /**
+     * A node covering the range [start, end) of the sorted strings, whose
+     * children are ordered by their folded character.
+     */
+    private static class Node {
+        private final int start, end;
+        private char[] labels;
+        private Node[] children;
+        
+        private Node(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+        
+        private Node getChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return (index < 0 ? null : children[index]);
+        }
+    }
+    
+    /* Orders strings without regard to case, then by case */
+    private static final Comparator<String> order = new Comparator<String>() {
+        @Override
+        public int compare(String a, String b) {
+            int result = String.CASE_INSENSITIVE_ORDER.compare(a, b);
+            return (result != 0 ? result : a.compareTo(b));
+        }
+    };
+    
+    /* Fold case the same way as String.CASE_INSENSITIVE_ORDER */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+    
+    private final String[] strings;
+    private final Node root;
+    
+    /**
+     * Build a trie of the given strings. Duplicates are only kept once.
+     * 
+     * @param strings
+     *            Strings to complete
+     */
+    public PrefixTrie(Collection<String> strings) {
+        List<String> sorted = new ArrayList<String>(strings);
+        Collections.sort(sorted, order);
+        List<String> unique = new ArrayList<String>(sorted.size());
+        for (String string : sorted) {
+            if (unique.isEmpty()
+                    || !unique.get(unique.size() - 1).equals(string)) {
+                unique.add(string);
+            }
+        }
+        this.strings = unique.toArray(new String[unique.size()]);
+        this.root = build(0, this.strings.length, 0);
+    }
+    
+    /**
+     * Find the strings beginning with a prefix, ignoring case, up to LIMIT.
+     * 
+     * @param prefix
+     *            Prefix typed so far
+     * @return Matching strings, sorted without regard to case
+     */
+    public List<String> complete(String prefix) {
+        return complete(prefix, LIMIT);
+    }
+    
+    /**
+     * Find the strings beginning with a prefix, ignoring case.
+     * 
+     * @param prefix
+     *            Prefix typed so far
+     * @param limit
+     *            Most strings to return
+     * @return Matching strings, sorted without regard to case
+     */
+    public List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.getChild(fold(prefix.charAt(i)));
+        }
+        if (node == null) {
+            return new ArrayList<String>(0);
+        }
+        int end = Math.min(node.end, node.start + limit);
+        List<String> matches = new ArrayList<String>(end - node.start);
+        for (int i = node.start; i < end; i++) {
+            matches.add(strings[i]);
+        }
+        return matches;
+    }
+    
+    /**
+     * @return Number of strings in the trie
+     */
+    public int size() {
+        return strings.length;
+    }
+    
+    /*
+     * Build the node for strings [start, end), which share their first depth
+     * characters. Strings of exactly that length sort first and end here; the
+     * rest are grouped into children by their next character.
+     */
+    private Node build(int start, int end, int depth) {
+        Node node = new Node(start, end);
+        int index = start;
+        while (index < end && strings[index].length() == depth) {
+            index++;
+        }
+        List<Character> labels = new ArrayList<Character>();
+        List<Node> children = new ArrayList<Node>();
+        while (index < end) {
+            char label = fold(strings[index].charAt(depth));
+            int groupEnd = index + 1;
+            while (groupEnd < end
+                    && fold(strings[groupEnd].charAt(depth)) == label) {
+                groupEnd++;
+            }
+            labels.add(label);
+            children.add(build(index, groupEnd, depth + 1));
+            index = groupEnd;
+        }
+        node.labels = new char[labels.size()];
+        for (int i = 0; i < node.labels.length; i++) {
+            node.labels[i] = labels.get(i);
+        }
+        node.children = children.toArray(new Node[children.size()]);
+        return node;
+    }
+    
+}
@@ -0,0 +1,337 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import net.easymfne.soundcheck.Emitter;
+import net.easymfne.soundcheck.LoadMonitor;
+import net.easymfne.soundcheck.engine.Timeline;
+
+/**
+ * The compiled frames of a sequence: what each frame plays, packed into
+ * primitive arrays ordered by time, so a player can walk them with a single
+ * cursor. The times are kept by the Timeline the engine plays, and the sound
+ * and effect ordinals and their parameters here. Scores are immutable once
+ * constructed, so a compiled Score may be shared and played any number of
+ * times.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Score extends Timeline {
+    
+    /**
+     * One frame of a sequence as it is written: a time and the sound and/or
+     * effect to play at it.
+     */
+    public interface Entry {
+        
+        /**
+         * @return EffectSpec of the frame, or null if there is none
+         */
+        public EffectSpec getEffect();
+        
+        /**
+         * @return SoundSpec of the frame, or null if there is none
+         */
+        public SoundSpec getSound();
+        
+        /**
+         * @return Time offset from start of the sequence (in ticks)
+         */
+        public int getTime();
+        
+    }
+    
+    /**
+     * Entry read from configuration by parseFrames().
+     */
+    private static class ParsedEntry implements Entry {
+        private final int time;
+        private final SoundSpec sound;
+        private final EffectSpec effect;
+        
+        private ParsedEntry(int time, SoundSpec sound, EffectSpec effect) {
+            this.time = time;
+            this.sound = sound;
+            this.effect = effect;
+        }
+        
+        @Override
+        public EffectSpec getEffect() {
+            return effect;
+        }
+        
+        @Override
+        public SoundSpec getSound() {
+            return sound;
+        }
+        
+        @Override
+        public int getTime() {
+            return time;
+        }
+    }
+    
+    /* Orders entries by time, leaving entries with equal times in place */
+    private static final Comparator<Entry> byTime = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            return (a.getTime() < b.getTime() ? -1 : (a.getTime() == b
+                    .getTime() ? 0 : 1));
+        }
+    };
+    
+    /**
+     * @param entries
+     *            Entries sorted by time
+     * @return Time offset of each entry (in ticks)
+     */
+    private static int[] getTimes(List<Entry> entries) {
+        int[] times = new int[entries.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = entries.get(i).getTime();
+        }
+        return times;
+    }
+    
+    /**
+     * Parse the frames of a sequence from the values of its configuration
+     * node, looking up sounds and effects in the given tables.
+     * 
+     * @param list
+     *            List of ConfigurationSections in Map form
+     * @param soundNames
+     *            Table of sound names
+     * @param effectNames
+     *            Table of effect names
+     * @return Frames, in the order they were written
+     * @throws IllegalArgumentException
+     *             if a frame names an unknown sound or effect
+     */
+    public static List<Entry> parseFrames(List<Map<?, ?>> list,
+            NameTable<?> soundNames, NameTable<?> effectNames) {
+        if (list == null || list.isEmpty()) {
+            throw new NullPointerException();
+        }
+        List<Entry> entries = new ArrayList<Entry>(list.size());
+        
+        for (Map<?, ?> frame : list) {
+            int time = (Integer) frame.get("time");
+            SoundSpec sound = null;
+            if (frame.containsKey("sound")) {
+                String value = (String) frame.get("sound");
+                sound = SoundSpec.read(value, soundNames);
+                if (sound == null && SoundSpec.matches(value)) {
+                    throw new IllegalArgumentException("Unknown sound: "
+                            + value);
+                }
+            }
+            EffectSpec effect = null;
+            if (frame.containsKey("effect")) {
+                String value = (String) frame.get("effect");
+                effect = EffectSpec.read(value, effectNames);
+                if (effect == null && EffectSpec.matches(value)) {
+                    throw new IllegalArgumentException("Unknown effect: "
+                            + value);
+                }
+            }
+            entries.add(new ParsedEntry(time, sound, effect));
+        }
+        return entries;
+    }
+    
+    /**
+     * @param entries
+     *            Entries
+     * @return Copy of the entries, sorted by time
+     */
+    private static List<Entry> sort(List<? extends Entry> entries) {
+        List<Entry> sorted = new ArrayList<Entry>(entries);
+        Collections.sort(sorted, byTime);
+        return sorted;
+    }
+    
+    /*
+     * Frames are stored as parallel primitive arrays sorted by time, where
+     * index i of every array (and of the Timeline's times) describes frame i.
+     * A sound or effect ordinal of -1 means the frame has no sound or effect.
+     */
+    private final int[] sounds;
+    private final float[] volumes, pitches;
+    private final int[] effects;
+    private final int[] effectData, radii;
+    
+    /**
+     * Construct with given name and list of frames, which are sorted by time.
+     * 
+     * @param name
+     *            Name of the sequence, may be null
+     * @param entries
+     *            Frames
+     */
+    public Score(String name, List<? extends Entry> entries) {
+        this(sort(entries), name);
+    }
+    
+    /**
+     * Construct with given name and list of frames that is already sorted by
+     * time.
+     * 
+     * @param sorted
+     *            Frames, sorted by time
+     * @param name
+     *            Name of the sequence, may be null
+     */
+    private Score(List<Entry> sorted, String name) {
+        super(name, getTimes(sorted));
+        int size = sorted.size();
+        sounds = new int[size];
+        volumes = new float[size];
+        pitches = new float[size];
+        effects = new int[size];
+        effectData = new int[size];
+        radii = new int[size];
+        for (int i = 0; i < size; i++) {
+            Entry entry = sorted.get(i);
+            SoundSpec sound = entry.getSound();
+            if (sound != null) {
+                sounds[i] = sound.getSoundId();
+                volumes[i] = sound.getVolume();
+                pitches[i] = sound.getPitch();
+            } else {
+                sounds[i] = -1;
+            }
+            EffectSpec effect = entry.getEffect();
+            if (effect != null) {
+                effects[i] = effect.getEffectId();
+                effectData[i] = effect.getData();
+                radii[i] = effect.getRadius();
+            } else {
+                effects[i] = -1;
+            }
+        }
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Data byte of the frame's effect
+     */
+    public int getEffectData(int index) {
+        return effectData[index];
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Effect ordinal of the frame, or -1 if it has no effect
+     */
+    public int getEffectId(int index) {
+        return effects[index];
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Number of sounds and effects the frame emits
+     */
+    @Override
+    public int getEmissionCount(int index) {
+        return (sounds[index] >= 0 ? 1 : 0) + (effects[index] >= 0 ? 1 : 0);
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Pitch of the frame's sound
+     */
+    public float getPitch(int index) {
+        return pitches[index];
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Radius of the frame's effect, or -1 for the default radius
+     */
+    public int getRadius(int index) {
+        return radii[index];
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Sound ordinal of the frame, or -1 if it has no sound
+     */
+    public int getSoundId(int index) {
+        return sounds[index];
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Volume of the frame's sound
+     */
+    public float getVolume(int index) {
+        return volumes[index];
+    }
+    
+    /**
+     * Play the sound and/or effect of one frame at a point through an
+     * Emitter, degraded according to the given LoadMonitor level.
+     * 
+     * @param index
+     *            Frame index, in order of time
+     * @param emitter
+     *            Emitter to play through
+     * @param world
+     *            World
+     * @param x
+     *            X coordinate
+     * @param y
+     *            Y coordinate
+     * @param z
+     *            Z coordinate
+     * @param level
+     *            Degradation level
+     * @return Number of emissions that were skipped
+     */
+    public <W> int playFrame(int index, Emitter<W, ?> emitter, W world,
+            double x, double y, double z, int level) {
+        if (sounds[index] >= 0) {
+            emitter.playSound(world, x, y, z, sounds[index], volumes[index],
+                    pitches[index]);
+        }
+        if (effects[index] >= 0) {
+            if (level >= LoadMonitor.DROP_EFFECTS) {
+                return 1;
+            }
+            int radius = radii[index];
+            if (level >= LoadMonitor.SHRINK_RADIUS) {
+                radius = (radius < 0 ? Emitter.DEFAULT_EFFECT_RADIUS
+                        : radius) / 2;
+            }
+            emitter.playEffect(world, x, y, z, effects[index],
+                    effectData[index], radius);
+        }
+        return 0;
+    }
+    
+}
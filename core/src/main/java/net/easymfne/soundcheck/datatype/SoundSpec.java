@@ -0,0 +1,128 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+/**
+ * A sound, volume, and pitch in the format "Sound sound:float volume:float
+ * pitch", with the sound kept as the ordinal of the server's enum so that it
+ * can be parsed and played without the server's API. SoundSpecs are
+ * immutable values.
+ * 
+ * @author Eric Hildebrand
+ */
+public class SoundSpec {
+    
+    /**
+     * @param string
+     *            Input string
+     * @return Whether string matches the SoundSpec format
+     */
+    public static boolean matches(String string) {
+        int index = ArgumentScanner.scanName(string, 0);
+        index = ArgumentScanner.scanSeparator(string, index, ':');
+        index = ArgumentScanner.scanDecimal(string, index, false);
+        index = ArgumentScanner.scanSeparator(string, index, ':');
+        return ArgumentScanner.scanDecimal(string, index, false) == string
+                .length();
+    }
+    
+    /**
+     * Read SoundSpec data from a string, looking up the sound in the given
+     * table. Returns null when the input does not match the appropriate
+     * format or names an unknown sound.
+     * 
+     * @param string
+     *            Input string
+     * @param table
+     *            Table of sound names
+     * @return read SoundSpec
+     */
+    public static SoundSpec read(String string, NameTable<?> table) {
+        int nameEnd = ArgumentScanner.scanName(string, 0);
+        int volumeStart = ArgumentScanner.scanSeparator(string, nameEnd, ':');
+        int volumeEnd = ArgumentScanner.scanDecimal(string, volumeStart, false);
+        int pitchStart = ArgumentScanner.scanSeparator(string, volumeEnd, ':');
+        int pitchEnd = ArgumentScanner.scanDecimal(string, pitchStart, false);
+        if (pitchEnd != string.length()) {
+            return null;
+        }
+        Enum<?> sound = table.get(string, 0, nameEnd);
+        if (sound == null) {
+            return null;
+        }
+        return new SoundSpec(sound.ordinal(),
+                ArgumentScanner.parseFloat(string, volumeStart, volumeEnd),
+                ArgumentScanner.parseFloat(string, pitchStart, pitchEnd));
+    }
+    
+    private final int sound;
+    private final float volume, pitch;
+    
+    /**
+     * @param sound
+     *            Sound ordinal
+     * @param volume
+     *            Volume
+     * @param pitch
+     *            Pitch
+     */
+    public SoundSpec(int sound, float volume, float pitch) {
+        this.sound = sound;
+        this.volume = volume;
+        this.pitch = pitch;
+    }
+    
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof SoundSpec)) {
+            return false;
+        }
+        SoundSpec other = (SoundSpec) object;
+        return sound == other.sound
+                && Float.floatToIntBits(volume) == Float
+                        .floatToIntBits(other.volume)
+                && Float.floatToIntBits(pitch) == Float
+                        .floatToIntBits(other.pitch);
+    }
+    
+    /**
+     * @return Pitch
+     */
+    public float getPitch() {
+        return pitch;
+    }
+    
+    /**
+     * @return Sound ordinal
+     */
+    public int getSoundId() {
+        return sound;
+    }
+    
+    /**
+     * @return Volume
+     */
+    public float getVolume() {
+        return volume;
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = sound;
+        hash = hash * 31 + Float.floatToIntBits(volume);
+        return hash * 31 + Float.floatToIntBits(pitch);
+    }
+    
+}
@@ -12,34 +12,33 @@
  * You should have received a copy of the GNU General Public License v3 along
  * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
  */
-package net.easymfne.soundcheck;
-
-import org.bukkit.configuration.ConfigurationSection;
+package net.easymfne.soundcheck.engine;
 
 /**
- * Configuration helper class, with methods for accessing the configuration.
+ * Source of the ticks that drive an Engine. The engine starts its clock when
+ * the first cue becomes active and stops it when nothing is left to play.
  * 
  * @author Eric Hildebrand
  */
-public class ConfigHelper {
+public interface Clock {
     
-    private Soundcheck plugin = null;
+    /**
+     * @return Time of the current tick, in nanoseconds from an arbitrary
+     *         origin, used to measure how long ticks take
+     */
+    public long getTime();
     
     /**
-     * Instantiate the class and give it a reference back to the plugin itself.
+     * Begin calling the given task once per tick, until stopped.
      * 
-     * @param plugin
-     *            The Soundcheck plugin
+     * @param tick
+     *            Task to run every tick
      */
-    public ConfigHelper(Soundcheck plugin) {
-        this.plugin = plugin;
-    }
+    public void start(Runnable tick);
     
     /**
-     * @return ConfigurationSection "sequence" from 'config.yml'.
+     * Stop calling the task given to start().
      */
-    public ConfigurationSection getSequences() {
-        return plugin.getConfig().getConfigurationSection("sequence");
-    }
+    public void stop();
     
 }
@@ -0,0 +1,276 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+import net.easymfne.soundcheck.LoadMonitor;
+import net.easymfne.soundcheck.Statistics;
+import net.easymfne.soundcheck.Statistics.Counter;
+
+/**
+ * A single running instance of a timeline at a location, and the handle used
+ * to control it. Keeps a cursor into the timeline's time-ordered frames, and
+ * is only woken by its engine on the tick its next frame is due.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Cue<T extends Timeline, L> {
+    
+    private final Engine<T, L> engine;
+    private final int id;
+    private final T timeline;
+    private final L location;
+    /* Engine tick at which the cue's time offset was 0, while it is moving */
+    private long origin = 0;
+    /* Time offset while the cue is not moving */
+    private int held = 0;
+    private int cursor = 0;
+    /* Counts the times the cue is scheduled, to tell its current slot */
+    private int epoch = 0;
+    private boolean started = false;
+    private boolean paused = false;
+    private boolean queued = false;
+    private boolean scheduled = false;
+    private boolean stopped = false;
+    
+    /**
+     * @param engine
+     *            Engine that plays the cue
+     * @param id
+     *            Unique cue ID
+     * @param timeline
+     *            Timeline to play
+     * @param location
+     *            Where to play the timeline
+     */
+    protected Cue(Engine<T, L> engine, int id, T timeline, L location) {
+        this.engine = engine;
+        this.id = id;
+        this.timeline = timeline;
+        this.location = location;
+    }
+    
+    /**
+     * Send every frame that has become due to the engine's sink. The first
+     * call after the cue starts is one tick later, and plays frames timed at 0
+     * and 1, matching the timing of a delayed BukkitScheduler task.
+     * 
+     * @param level
+     *            LoadMonitor degradation level
+     */
+    void advance(int level) {
+        int tick = getTick();
+        int count = timeline.getFrameCount();
+        int due = 0;
+        int shed = 0;
+        while (!stopped && cursor < count
+                && timeline.getTime(cursor) <= tick) {
+            if (level >= LoadMonitor.THIN_FRAMES && (due++ & 1) == 1) {
+                shed += timeline.getEmissionCount(cursor++);
+            } else {
+                shed += engine.getSink().play(timeline, cursor++, location,
+                        level);
+            }
+        }
+        if (shed > 0) {
+            Statistics.add(Counter.SHED, shed);
+        }
+        if (cursor >= count) {
+            stop();
+        }
+    }
+    
+    /**
+     * Stop the cue permanently. Does nothing if it has already finished.
+     */
+    public void cancel() {
+        stop();
+    }
+    
+    /**
+     * @return Engine tick on which the next frame is due. A cue with no frames
+     *         left is due at once, so that it is stopped.
+     */
+    long getDue() {
+        return origin
+                + (cursor < timeline.getFrameCount() ? timeline
+                        .getTime(cursor) : 0);
+    }
+    
+    /**
+     * @return Number of times the cue has been scheduled
+     */
+    int getEpoch() {
+        return epoch;
+    }
+    
+    /**
+     * @return Unique ID of the cue
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * @return Location the timeline is playing at
+     */
+    public L getLocation() {
+        return location;
+    }
+    
+    /**
+     * @return Current time offset from the start of the timeline (in ticks)
+     */
+    public int getTick() {
+        return (isMoving() ? (int) (engine.getNow() - origin) : held);
+    }
+    
+    /**
+     * @return Timeline being played
+     */
+    public T getTimeline() {
+        return timeline;
+    }
+    
+    /**
+     * @return Whether the cue has finished or been cancelled
+     */
+    public boolean isDone() {
+        return stopped;
+    }
+    
+    /**
+     * @return Whether the cue is started, and neither paused nor done, so
+     *         that its time offset advances with the engine
+     */
+    boolean isMoving() {
+        return started && !paused && !stopped;
+    }
+    
+    /**
+     * @return Whether the cue is paused
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+    
+    /**
+     * @return Whether the cue is waiting for room under the limits
+     */
+    public boolean isQueued() {
+        return queued;
+    }
+    
+    /**
+     * @return Whether the cue is in its engine's schedule
+     */
+    boolean isScheduled() {
+        return scheduled;
+    }
+    
+    /**
+     * Count the cue being scheduled again.
+     * 
+     * @return New number of times the cue has been scheduled
+     */
+    int nextEpoch() {
+        return ++epoch;
+    }
+    
+    /**
+     * Hold the cue at its current position until resumed.
+     */
+    public void pause() {
+        if (isMoving()) {
+            engine.unschedule(this);
+            held = getTick();
+        }
+        paused = true;
+    }
+    
+    /**
+     * Continue a paused cue from where it was paused.
+     */
+    public void resume() {
+        paused = false;
+        if (isMoving()) {
+            origin = engine.getNow() - held;
+            engine.schedule(this);
+        }
+    }
+    
+    /**
+     * Move the cue to a time offset. Frames timed before the offset are
+     * skipped, and frames timed at the offset play on the next tick. Has no
+     * effect once the cue is done.
+     * 
+     * @param tick
+     *            Time offset from the start of the timeline (in ticks)
+     */
+    public void seek(int tick) {
+        if (stopped) {
+            return;
+        }
+        tick = Math.max(0, tick);
+        if (isMoving()) {
+            engine.unschedule(this);
+            origin = engine.getNow() - tick;
+            cursor = timeline.indexOf(tick);
+            engine.schedule(this);
+        } else {
+            held = tick;
+            cursor = timeline.indexOf(tick);
+        }
+    }
+    
+    /**
+     * @param queued
+     *            Whether the cue is waiting for room under the limits
+     */
+    void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+    
+    /**
+     * @param scheduled
+     *            Whether the cue is in its engine's schedule
+     */
+    void setScheduled(boolean scheduled) {
+        this.scheduled = scheduled;
+    }
+    
+    /**
+     * Start the cue from its current position, on the engine's current tick,
+     * and schedule its next frame unless it is paused.
+     */
+    void start() {
+        started = true;
+        if (isMoving()) {
+            origin = engine.getNow() - held;
+            engine.schedule(this);
+        }
+    }
+    
+    /**
+     * Mark the cue as done and release it from its engine, exactly once.
+     */
+    private void stop() {
+        if (!stopped) {
+            held = getTick();
+            stopped = true;
+            engine.release(this);
+        }
+    }
+    
+}
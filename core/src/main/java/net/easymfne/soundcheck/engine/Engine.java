@@ -0,0 +1,549 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import net.easymfne.soundcheck.LoadMonitor;
+import net.easymfne.soundcheck.PlaybackLimits;
+import net.easymfne.soundcheck.Statistics;
+import net.easymfne.soundcheck.Statistics.Counter;
+
+/**
+ * Plays timelines of type T at locations of type L, with no knowledge of
+ * where they are played beyond its Clock and Sink. All active cues are
+ * advanced by a single task on the clock, which only runs while at least one
+ * cue is active. Cues wait in a schedule ordered by the tick their next frame
+ * is due, so each tick only visits the cues that have a frame to play, and
+ * paused cues are not visited at all. A cue that is paused, moved, or stopped
+ * is not searched for: its place in the schedule or the queue is left behind
+ * as stale and discarded when it is reached. New cues are admitted according
+ * to the configured PlaybackLimits, with regions as reported by the sink. An
+ * engine is not thread-safe, and is meant to be used from the thread its
+ * clock ticks on.
+ * 
+ * @author Eric Hildebrand
+ */
+public class Engine<T extends Timeline, L> {
+    
+    /**
+     * A cue's place in the schedule, which is stale once the cue has been
+     * unscheduled or scheduled again.
+     */
+    private static class Slot<T extends Timeline, L> {
+        
+        private final Cue<T, L> cue;
+        private final long due;
+        private final int epoch;
+        
+        /**
+         * @param cue
+         *            Cue being scheduled
+         */
+        private Slot(Cue<T, L> cue) {
+            this.cue = cue;
+            due = cue.getDue();
+            epoch = cue.nextEpoch();
+        }
+        
+        /**
+         * @return Whether the slot is still the cue's place in the schedule
+         */
+        private boolean isCurrent() {
+            return cue.isScheduled() && cue.getEpoch() == epoch;
+        }
+        
+    }
+    
+    /* Orders slots by the tick their cue's next frame is due, then by age */
+    private static final Comparator<Slot<?, ?>> byDue =
+            new Comparator<Slot<?, ?>>() {
+                @Override
+                public int compare(Slot<?, ?> a, Slot<?, ?> b) {
+                    long due = a.due - b.due;
+                    if (due != 0) {
+                        return (due < 0 ? -1 : 1);
+                    }
+                    int id = a.cue.getId() - b.cue.getId();
+                    return (id != 0 ? id : a.epoch - b.epoch);
+                }
+            };
+    
+    private final Clock clock;
+    private final Sink<T, L> sink;
+    private final Map<Integer, Cue<T, L>> cues =
+            new LinkedHashMap<Integer, Cue<T, L>>();
+    private final Deque<Cue<T, L>> queue = new ArrayDeque<Cue<T, L>>();
+    private final PriorityQueue<Slot<T, L>> schedule =
+            new PriorityQueue<Slot<T, L>>(16, byDue);
+    private final Map<String, Integer> regionCounts =
+            new HashMap<String, Integer>();
+    private final Map<String, Integer> timelineCounts =
+            new HashMap<String, Integer>();
+    private final LoadMonitor loadMonitor = new LoadMonitor();
+    private PlaybackLimits limits = PlaybackLimits.UNLIMITED;
+    private boolean running = false;
+    private boolean released = false;
+    private int nextId = 1;
+    private long now = 0;
+    /* Queued cues that have not been cancelled */
+    private int queued = 0;
+    /* Slots in the schedule that are no longer current */
+    private int stale = 0;
+    
+    /* Runs on the clock once per tick */
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            advance();
+        }
+    };
+    
+    /**
+     * @param clock
+     *            Clock that drives the engine
+     * @param sink
+     *            Sink that frames are played through
+     */
+    public Engine(Clock clock, Sink<T, L> sink) {
+        this.clock = clock;
+        this.sink = sink;
+    }
+    
+    /**
+     * Start a cue and count it against the limits.
+     * 
+     * @param cue
+     *            Cue to start
+     */
+    private void activate(Cue<T, L> cue) {
+        cue.setQueued(false);
+        cues.put(cue.getId(), cue);
+        adjust(regionCounts, getRegion(cue), 1);
+        adjust(timelineCounts, cue.getTimeline().getName(), 1);
+        cue.start();
+        if (!running) {
+            loadMonitor.reset();
+            running = true;
+            clock.start(tick);
+        }
+    }
+    
+    /**
+     * Start as many queued cues as the limits allow, in queued order, and
+     * discard queued cues that were cancelled.
+     */
+    private void admitQueued() {
+        Iterator<Cue<T, L>> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Cue<T, L> cue = iterator.next();
+            if (cue.isDone()) {
+                iterator.remove();
+            } else if (findBlocker(cue) == null) {
+                iterator.remove();
+                queued--;
+                activate(cue);
+            }
+        }
+    }
+    
+    /**
+     * Change one of the per-region or per-timeline counters.
+     * 
+     * @param counts
+     *            Counters
+     * @param key
+     *            Region or timeline name, ignored when null
+     * @param delta
+     *            Amount to add
+     */
+    private static void adjust(Map<String, Integer> counts, String key,
+            int delta) {
+        if (key == null) {
+            return;
+        }
+        int count = getCount(counts, key) + delta;
+        if (count > 0) {
+            counts.put(key, count);
+        } else {
+            counts.remove(key);
+        }
+    }
+    
+    /**
+     * Advance the engine by one tick, playing the frames of every cue that has
+     * one due and rescheduling those that have more, then start any queued
+     * cues that now fit. Frames are degraded according to the measured load.
+     * Stops the clock when nothing is left to play. Called by the clock, and
+     * need not be called otherwise.
+     */
+    public void advance() {
+        loadMonitor.tick(clock.getTime());
+        int level = loadMonitor.getLevel();
+        now++;
+        sink.startTick();
+        while (!schedule.isEmpty() && schedule.peek().due <= now) {
+            Slot<T, L> slot = schedule.poll();
+            if (!slot.isCurrent()) {
+                stale--;
+                continue;
+            }
+            Cue<T, L> cue = slot.cue;
+            cue.setScheduled(false);
+            cue.advance(level);
+            schedule(cue);
+        }
+        if (released && !queue.isEmpty()) {
+            admitQueued();
+        }
+        released = false;
+        if (cues.isEmpty()) {
+            stopClock();
+        }
+    }
+    
+    /**
+     * Stop all cues and the clock, and return to unlimited playback.
+     */
+    public void close() {
+        stopAll();
+        stopClock();
+        limits = PlaybackLimits.UNLIMITED;
+    }
+    
+    /**
+     * Build the handle for a new cue. Subclasses may return their own kind of
+     * cue.
+     * 
+     * @param id
+     *            Unique cue ID
+     * @param timeline
+     *            Timeline to play
+     * @param location
+     *            Where to play the timeline
+     * @return New cue
+     */
+    protected Cue<T, L> createCue(int id, T timeline, L location) {
+        return new Cue<T, L>(this, id, timeline, location);
+    }
+    
+    /**
+     * Find the cap that a cue would exceed if it were started now.
+     * 
+     * @param cue
+     *            Cue to check
+     * @return The oldest active cue counted against the exceeded cap, or null
+     *         if the cue fits within every cap
+     */
+    private Cue<T, L> findBlocker(Cue<T, L> cue) {
+        String region = getRegion(cue);
+        String name = cue.getTimeline().getName();
+        boolean global = (limits.getGlobal() > 0 && cues.size() >= limits
+                .getGlobal());
+        boolean perRegion = (limits.getPerWorld() > 0 && getCount(
+                regionCounts, region) >= limits.getPerWorld());
+        boolean perTimeline = (limits.getPerSequence() > 0 && name != null
+                && getCount(timelineCounts, name) >= limits.getPerSequence());
+        if (!global && !perRegion && !perTimeline) {
+            return null;
+        }
+        for (Cue<T, L> active : cues.values()) {
+            if (active.isDone()) {
+                continue;
+            }
+            if (global || (perRegion && region.equals(getRegion(active)))
+                    || (perTimeline && name.equals(active.getTimeline()
+                            .getName()))) {
+                return active;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * @param id
+     *            Cue ID
+     * @return Active or queued cue with the ID, or null if there is none
+     */
+    public Cue<T, L> get(int id) {
+        Cue<T, L> cue = cues.get(id);
+        if (cue == null) {
+            for (Cue<T, L> waiting : queue) {
+                if (waiting.getId() == id && !waiting.isDone()) {
+                    return waiting;
+                }
+            }
+        }
+        return cue;
+    }
+    
+    /**
+     * @return Number of timelines currently playing
+     */
+    public int getActiveCount() {
+        return cues.size();
+    }
+    
+    /**
+     * @param counts
+     *            Counters
+     * @param key
+     *            Region or timeline name
+     * @return Current count for the key
+     */
+    private static int getCount(Map<String, Integer> counts, String key) {
+        Integer count = counts.get(key);
+        return (count == null ? 0 : count);
+    }
+    
+    /**
+     * @return Read-only view of all active cues, oldest first
+     */
+    public Collection<Cue<T, L>> getCues() {
+        return Collections.unmodifiableCollection(cues.values());
+    }
+    
+    /**
+     * @return Current playback limits
+     */
+    public PlaybackLimits getLimits() {
+        return limits;
+    }
+    
+    /**
+     * @return Monitor used to degrade frames under load
+     */
+    public LoadMonitor getLoadMonitor() {
+        return loadMonitor;
+    }
+    
+    /**
+     * @return Number of ticks the engine has advanced
+     */
+    long getNow() {
+        return now;
+    }
+    
+    /**
+     * @return Number of timelines waiting for room under the limits
+     */
+    public int getQueuedCount() {
+        return queued;
+    }
+    
+    /**
+     * @param cue
+     *            Cue
+     * @return Name of the region the cue is in
+     */
+    private String getRegion(Cue<T, L> cue) {
+        return sink.getRegion(cue.getLocation());
+    }
+    
+    /**
+     * @return Sink that frames are played through
+     */
+    Sink<T, L> getSink() {
+        return sink;
+    }
+    
+    /**
+     * Start playing a timeline at the given location. Its frames are played
+     * by the clock's task, which is started if it is not running. If the cue
+     * would exceed a limit, it is dropped, queued, or started in place of the
+     * oldest conflicting cue, as the limits' policy dictates.
+     * 
+     * @param timeline
+     *            Timeline to play
+     * @param location
+     *            Location to play the timeline
+     * @return Handle for controlling the cue, or null if it was dropped
+     */
+    public Cue<T, L> play(T timeline, L location) {
+        Cue<T, L> cue = createCue(nextId++, timeline, location);
+        Cue<T, L> blocker = findBlocker(cue);
+        if (blocker != null) {
+            switch (limits.getPolicy()) {
+            case QUEUE:
+                if (queued < limits.getQueueSize()) {
+                    Statistics.increment(Counter.QUEUED);
+                    cue.setQueued(true);
+                    queue.add(cue);
+                    queued++;
+                    return cue;
+                }
+                Statistics.increment(Counter.DROPPED);
+                return null;
+            case REPLACE:
+                while (blocker != null) {
+                    Statistics.increment(Counter.REPLACED);
+                    blocker.cancel();
+                    blocker = findBlocker(cue);
+                }
+                break;
+            default:
+                Statistics.increment(Counter.DROPPED);
+                return null;
+            }
+        }
+        activate(cue);
+        return cue;
+    }
+    
+    /**
+     * Forget a cue that has finished or been cancelled, freeing its place
+     * under the limits. A cancelled queued cue is left in the queue, and
+     * discarded when the queue is next visited.
+     * 
+     * @param cue
+     *            Stopped cue
+     */
+    void release(Cue<T, L> cue) {
+        if (cue.isQueued()) {
+            if (--queued == 0) {
+                queue.clear();
+            }
+            return;
+        }
+        unschedule(cue);
+        adjust(regionCounts, getRegion(cue), -1);
+        adjust(timelineCounts, cue.getTimeline().getName(), -1);
+        released = true;
+        cues.remove(cue.getId());
+    }
+    
+    /**
+     * Add a cue to the schedule at the tick its next frame is due, if it is
+     * moving and not already scheduled.
+     * 
+     * @param cue
+     *            Active cue
+     */
+    void schedule(Cue<T, L> cue) {
+        if (cue.isMoving() && !cue.isScheduled()) {
+            cue.setScheduled(true);
+            schedule.add(new Slot<T, L>(cue));
+        }
+    }
+    
+    /**
+     * Replace the limits used to admit new cues. Cues that are already active
+     * are not affected.
+     * 
+     * @param limits
+     *            New playback limits
+     */
+    public void setLimits(PlaybackLimits limits) {
+        this.limits = limits;
+        released = true;
+    }
+    
+    /**
+     * Cancel every active and queued cue.
+     * 
+     * @return Number of cues cancelled
+     */
+    public int stopAll() {
+        List<Cue<T, L>> stopping = new ArrayList<Cue<T, L>>();
+        for (Cue<T, L> cue : queue) {
+            if (!cue.isDone()) {
+                stopping.add(cue);
+            }
+        }
+        stopping.addAll(cues.values());
+        /* Emptied at once, rather than leaving every slot stale */
+        for (Slot<T, L> slot : schedule) {
+            slot.cue.setScheduled(false);
+        }
+        schedule.clear();
+        stale = 0;
+        for (Cue<T, L> cue : stopping) {
+            cue.cancel();
+        }
+        return stopping.size();
+    }
+    
+    /**
+     * Cancel every active and queued cue of a timeline.
+     * 
+     * @param name
+     *            Timeline name
+     * @return Number of cues cancelled
+     */
+    public int stopAll(String name) {
+        List<Cue<T, L>> stopping = new ArrayList<Cue<T, L>>();
+        for (Cue<T, L> cue : queue) {
+            if (!cue.isDone() && name.equals(cue.getTimeline().getName())) {
+                stopping.add(cue);
+            }
+        }
+        for (Cue<T, L> cue : cues.values()) {
+            if (name.equals(cue.getTimeline().getName())) {
+                stopping.add(cue);
+            }
+        }
+        for (Cue<T, L> cue : stopping) {
+            cue.cancel();
+        }
+        return stopping.size();
+    }
+    
+    /**
+     * Stop the clock, if it is running.
+     */
+    private void stopClock() {
+        if (running) {
+            running = false;
+            clock.stop();
+        }
+    }
+    
+    /**
+     * Take a cue out of the schedule, such as when it is paused, moved, or
+     * stopped. Its slot is left stale, and the schedule is rebuilt without
+     * stale slots once they outnumber the current ones.
+     * 
+     * @param cue
+     *            Cue
+     */
+    void unschedule(Cue<T, L> cue) {
+        if (cue.isScheduled()) {
+            cue.setScheduled(false);
+            if (++stale > 64 && stale > schedule.size() / 2) {
+                List<Slot<T, L>> current = new ArrayList<Slot<T, L>>();
+                for (Slot<T, L> slot : schedule) {
+                    if (slot.isCurrent()) {
+                        current.add(slot);
+                    }
+                }
+                schedule.clear();
+                schedule.addAll(current);
+                stale = 0;
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+/**
+ * Clock that ticks only when told to, so that an Engine can be driven without
+ * a server, as fast as the caller likes. Its time advances by a set length
+ * each tick, so that lag can be simulated.
+ * 
+ * @author Eric Hildebrand
+ */
+public class ManualClock implements Clock {
+    
+    private Runnable task = null;
+    private long ticks = 0;
+    private long time = 0L;
+    /* Length of a tick in nanoseconds, 50 ms at 20 TPS */
+    private long tickLength = 50000000L;
+    
+    /**
+     * @return Number of ticks that have run a task
+     */
+    public long getTicks() {
+        return ticks;
+    }
+    
+    @Override
+    public long getTime() {
+        return time;
+    }
+    
+    /**
+     * @return Whether the clock has been started and not stopped
+     */
+    public boolean isRunning() {
+        return (task != null);
+    }
+    
+    /**
+     * @param tickLength
+     *            Time each following tick takes, in nanoseconds
+     */
+    public void setTickLength(long tickLength) {
+        this.tickLength = tickLength;
+    }
+    
+    @Override
+    public void start(Runnable tick) {
+        task = tick;
+    }
+    
+    @Override
+    public void stop() {
+        task = null;
+    }
+    
+    /**
+     * Run one tick, if the clock is running, after advancing its time by the
+     * tick length.
+     * 
+     * @return Whether the clock was running
+     */
+    public boolean tick() {
+        if (task == null) {
+            return false;
+        }
+        ticks++;
+        time += tickLength;
+        task.run();
+        return true;
+    }
+    
+}
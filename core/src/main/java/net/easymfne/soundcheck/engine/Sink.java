@@ -0,0 +1,56 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+/**
+ * Where an Engine sends the frames of its cues as they become due. A sink
+ * knows how to play a frame of its kind of timeline (T) at its kind of
+ * location (L), and how locations are grouped into regions for the per-region
+ * limits.
+ * 
+ * @author Eric Hildebrand
+ */
+public interface Sink<T extends Timeline, L> {
+    
+    /**
+     * @param location
+     *            Location
+     * @return Name of the region containing the location, such as its world
+     */
+    public String getRegion(L location);
+    
+    /**
+     * Play one frame of a timeline, degraded according to the LoadMonitor
+     * level.
+     * 
+     * @param timeline
+     *            Timeline
+     * @param index
+     *            Frame index, in order of time
+     * @param location
+     *            Location
+     * @param level
+     *            Degradation level
+     * @return Number of emissions that were skipped
+     */
+    public int play(T timeline, int index, L location, int level);
+    
+    /**
+     * Called by the engine at the start of every tick, before the frames due
+     * on that tick are played.
+     */
+    public void startTick();
+    
+}
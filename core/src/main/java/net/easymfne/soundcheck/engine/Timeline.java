@@ -0,0 +1,99 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+/**
+ * The times of the frames of a named sequence, in order, which is all an
+ * Engine needs to know to play it. What each frame plays is up to subclasses
+ * and the Sink they are played through. Timelines are immutable, so one may
+ * be played any number of times at once.
+ * 
+ * @author Eric Hildebrand
+ */
+public abstract class Timeline {
+    
+    private final String name;
+    private final int[] times;
+    
+    /**
+     * @param name
+     *            Name of the timeline, may be null
+     * @param times
+     *            Time offset of each frame (in ticks), sorted, not copied
+     */
+    protected Timeline(String name, int[] times) {
+        this.name = name;
+        this.times = times;
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Number of emissions the frame makes
+     */
+    public abstract int getEmissionCount(int index);
+    
+    /**
+     * @return Number of frames in the timeline
+     */
+    public int getFrameCount() {
+        return times.length;
+    }
+    
+    /**
+     * @return Time offset of the last frame (in ticks)
+     */
+    public int getLength() {
+        return (times.length == 0 ? 0 : times[times.length - 1]);
+    }
+    
+    /**
+     * @return Name of the timeline, or null if it is unnamed
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * @param index
+     *            Frame index, in order of time
+     * @return Time offset of the frame from the start (in ticks)
+     */
+    public int getTime(int index) {
+        return times[index];
+    }
+    
+    /**
+     * Find the first frame timed at or after the given tick.
+     * 
+     * @param tick
+     *            Time offset from the start (in ticks)
+     * @return Index of the first such frame, or the frame count if none
+     */
+    public int indexOf(int tick) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < tick) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+}
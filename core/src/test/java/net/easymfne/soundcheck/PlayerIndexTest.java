@@ -0,0 +1,166 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that a PlayerIndex answers radius queries the same as checking every
+ * player, as players join, move, change world, and leave.
+ * 
+ * @author Eric Hildebrand
+ */
+public class PlayerIndexTest {
+    
+    /**
+     * Player for tests, at a position that the test moves freely.
+     */
+    private static class Spot {
+        private final UUID id = UUID.randomUUID();
+        private String world;
+        private double x, y, z;
+    }
+    
+    /* Audience that locates spots, and plays nothing */
+    private static final Audience<String, Spot> audience =
+            new Audience<String, Spot>() {
+                @Override
+                public UUID getId(Spot spot) {
+                    return spot.id;
+                }
+                
+                @Override
+                public boolean isMuted(Spot spot) {
+                    return false;
+                }
+                
+                @Override
+                public String locate(Spot spot, double[] position) {
+                    position[0] = spot.x;
+                    position[1] = spot.y;
+                    position[2] = spot.z;
+                    return spot.world;
+                }
+                
+                @Override
+                public void playEffect(Spot spot, String world, double x,
+                        double y, double z, int effect, int data) {
+                }
+                
+                @Override
+                public void playSound(Spot spot, String world, double x,
+                        double y, double z, int sound, float volume,
+                        float pitch) {
+                }
+            };
+    
+    private static final String[] worlds = { "a", "b" };
+    
+    private Random random;
+    private PlayerIndex<String, Spot> index;
+    private List<Spot> online;
+    
+    /**
+     * Move a spot to a random place in a random world.
+     * 
+     * @param spot
+     *            Spot to move
+     */
+    private void place(Spot spot) {
+        spot.world = worlds[random.nextInt(worlds.length)];
+        spot.x = random.nextDouble() * 400.0 - 200.0;
+        spot.y = random.nextDouble() * 256.0;
+        spot.z = random.nextDouble() * 400.0 - 200.0;
+    }
+    
+    /**
+     * Check a random query against every online spot.
+     */
+    private void query() {
+        String world = worlds[random.nextInt(worlds.length)];
+        double x = random.nextDouble() * 400.0 - 200.0;
+        double y = random.nextDouble() * 256.0;
+        double z = random.nextDouble() * 400.0 - 200.0;
+        double radius = 5.0 + random.nextDouble() * 75.0;
+        Set<Spot> expected = new HashSet<Spot>();
+        for (Spot spot : online) {
+            double dx = spot.x - x;
+            double dy = spot.y - y;
+            double dz = spot.z - z;
+            if (spot.world.equals(world)
+                    && dx * dx + dy * dy + dz * dz <= radius * radius) {
+                expected.add(spot);
+            }
+        }
+        List<Spot> found = new ArrayList<Spot>();
+        index.getNearby(world, x, y, z, radius, found);
+        assertEquals(expected.size(), found.size());
+        assertEquals(expected, new HashSet<Spot>(found));
+    }
+    
+    @Before
+    public void setUp() {
+        random = new Random(8);
+        index = new PlayerIndex<String, Spot>(audience);
+        online = new ArrayList<Spot>();
+        for (int i = 0; i < 200; i++) {
+            Spot spot = new Spot();
+            place(spot);
+            online.add(spot);
+            index.update(spot);
+        }
+    }
+    
+    @Test
+    public void clearEmptiesIndex() {
+        index.clear();
+        online.clear();
+        assertEquals(0, index.size());
+        query();
+    }
+    
+    @Test
+    public void queriesMatchEveryPlayer() {
+        for (int i = 0; i < 2000; i++) {
+            int action = random.nextInt(4);
+            if (action == 0 && !online.isEmpty()) {
+                Spot spot = online.remove(random.nextInt(online.size()));
+                index.remove(spot);
+            } else if (action == 1) {
+                Spot spot = new Spot();
+                place(spot);
+                online.add(spot);
+                index.update(spot);
+            } else if (!online.isEmpty()) {
+                Spot spot = online.get(random.nextInt(online.size()));
+                place(spot);
+                index.update(spot);
+            }
+            assertEquals(online.size(), index.size());
+            query();
+        }
+    }
+    
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.datatype;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Tests that the ArgumentScanner accepts exactly what the regular expressions
+ * it replaced accepted, and reads numbers bit-for-bit the same as the JDK.
+ * Names are checked against "[A-Za-z0-9_]+", as names became
+ * case-insensitive.
+ * 
+ * @author Eric Hildebrand
+ */
+public class ArgumentScannerTest {
+    
+    /* The patterns the scanners replaced */
+    private static final String decimal = "-?[0-9]+\\.?[0-9]*";
+    private static final String unsigned = "[0-9]+\\.?[0-9]*";
+    private static final String digits = "[0-9]+";
+    private static final String name = "[A-Za-z0-9_]+";
+    private static final Pattern coordinates = Pattern.compile("^("
+            + decimal + "),(" + decimal + "),(" + decimal + ")$");
+    private static final Pattern relative = Pattern.compile("^~(" + decimal
+            + "),(" + decimal + "),(" + decimal + ")$");
+    private static final Pattern sound = Pattern.compile("^(" + name
+            + "):(" + unsigned + "):(" + unsigned + ")$");
+    private static final Pattern effect = Pattern.compile("^(" + name
+            + ")(?::(" + digits + ")(?::(" + digits + ")))$");
+    
+    /**
+     * Check a table of inputs against a pattern and a scanner.
+     * 
+     * @param pattern
+     *            Pattern the scanner replaced
+     * @param format
+     *            Format scanned for, as used by scan()
+     * @param accepted
+     *            Inputs both should accept
+     * @param rejected
+     *            Inputs both should reject
+     */
+    private static void check(Pattern pattern, char format, String[] accepted,
+            String[] rejected) {
+        for (String input : accepted) {
+            assertEquals("pattern accepts " + input, true,
+                    pattern.matcher(input).matches());
+            assertEquals("scanner accepts " + input, true, scan(format, input));
+        }
+        for (String input : rejected) {
+            assertEquals("pattern rejects " + input, false,
+                    pattern.matcher(input).matches());
+            assertEquals("scanner rejects " + input, false,
+                    scan(format, input));
+        }
+    }
+    
+    /**
+     * Check that both readers give the same double as Double.parseDouble.
+     * 
+     * @param input
+     *            Number accepted by scanDecimal
+     */
+    private static void checkDouble(String input) {
+        assertEquals("double " + input,
+                Double.doubleToRawLongBits(Double.parseDouble(input)),
+                Double.doubleToRawLongBits(ArgumentScanner.parseDouble(
+                        input, 0, input.length())));
+    }
+    
+    /**
+     * Check that the reader gives the same float as Float.parseFloat.
+     * 
+     * @param input
+     *            Unsigned number accepted by scanDecimal
+     */
+    private static void checkFloat(String input) {
+        assertEquals("float " + input,
+                Float.floatToRawIntBits(Float.parseFloat(input)),
+                Float.floatToRawIntBits(ArgumentScanner.parseFloat(input, 0,
+                        input.length())));
+    }
+    
+    /**
+     * Scan a whole input the way the argument types do.
+     * 
+     * @param format
+     *            'c' for coordinates, 'r' for relative coordinates, 's' for
+     *            a sound, or 'e' for an effect
+     * @param input
+     *            Input string
+     * @return Whether the whole input was matched
+     */
+    private static boolean scan(char format, String input) {
+        switch (format) {
+        case 's':
+            return SoundSpec.matches(input);
+        case 'e':
+            return EffectSpec.matches(input);
+        default:
+            int index = (format == 'r' ? ArgumentScanner.scanSeparator(input,
+                    0, '~') : 0);
+            index = ArgumentScanner.scanDecimal(input, index, true);
+            index = ArgumentScanner.scanSeparator(input, index, ',');
+            index = ArgumentScanner.scanDecimal(input, index, true);
+            index = ArgumentScanner.scanSeparator(input, index, ',');
+            return ArgumentScanner.scanDecimal(input, index, true) == input
+                    .length();
+        }
+    }
+    
+    @Test
+    public void coordinatesMatchPattern() {
+        check(coordinates, 'c', new String[] { "0,0,0", "1,2,3",
+                "-1,-2,-3", "1.,2.,3.", "1.5,-2.25,3", "007,0.0,-0",
+                "123456789012345678901,1,1" }, new String[] { "", "1,2",
+                "1,2,3,", ",1,2", "1,,2", "+1,2,3", ".5,1,2", "1e5,1,2",
+                "1.5.5,1,2", "~1,2,3", "1, 2,3", "--1,2,3", "-,1,2",
+                "-.5,1,2", "1,2,3 ", "1,2,a" });
+    }
+    
+    @Test
+    public void effectsMatchPattern() {
+        check(effect, 'e', new String[] { "SMOKE:4:16", "smoke:0:0",
+                "A_1:007:0", "SMOKE:99999999999:1" }, new String[] { "",
+                "SMOKE", "SMOKE:4", "SMOKE:-4:16", "SMOKE:4.0:16",
+                "SMOKE::16", "SMOKE:4:", ":4:16", "SMOKE:4:16:",
+                "SMOKE-1:4:16", "SMOKE:4:1e2" });
+    }
+    
+    @Test
+    public void relativeCoordinatesMatchPattern() {
+        check(relative, 'r', new String[] { "~0,0,0", "~-1.5,2.,3",
+                "~-0,-0.,-0.0" }, new String[] { "", "~", "~,,", "~~1,2,3",
+                "1,2,3", "~1,2", "~.5,1,1", "~1e2,0,0", "~1,2,3~",
+                "~ 1,2,3" });
+    }
+    
+    @Test
+    public void soundsMatchPattern() {
+        check(sound, 's', new String[] { "NOTE_PIANO:1:1",
+                "note_piano:1.:0.5", "A:0:0", "X:00012.34000:3",
+                "X:12345678901234567.5:1" }, new String[] { "", "NOTE_PIANO",
+                "NOTE_PIANO:1", "NOTE_PIANO:-1:1", "NOTE_PIANO::1", ":1:1",
+                "NOTE-PIANO:1:1", "NOTE_PIANO:1:1:", "NOTE_PIANO:.5:1",
+                "NOTE_PIANO:1e1:1", "NOTE_PIANO:1:+1" });
+    }
+    
+    @Test
+    public void doublesMatchParseDouble() {
+        String[] inputs = { "0", "-0", "0.", "-0.0", "1", "1.", "-1.5",
+                "0.1", "0.3", "-2.675", "3.14159", "0.000001",
+                "123456789.123456789", "12345678901234567",
+                "1.2345678901234567", "-9007199254740993", "9007199254740992",
+                "0.0000000000000000000001", "0.00000000000000000000001",
+                "100000000000000000000000", "179769313486231570" };
+        for (String input : inputs) {
+            checkDouble(input);
+        }
+    }
+    
+    @Test
+    public void floatsMatchParseFloat() {
+        String[] inputs = { "0", "0.", "0.0", "1", "1.", "1.5", "0.1",
+                "0.5", "2.0", "0.30000001192092896", "1.0000001",
+                "16777216", "16777217", "0.0000000001", "0.00000000001",
+                "12345678901234567",
+                "340282356779733661637539395458142568448" };
+        for (String input : inputs) {
+            checkFloat(input);
+        }
+    }
+    
+    @Test
+    public void randomNumbersMatchJdk() {
+        Random random = new Random(20);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = 1 + random.nextInt(20);
+            int point = random.nextInt(length + 4);
+            for (int j = 0; j < length; j++) {
+                builder.append((char) ('0' + random.nextInt(10)));
+                if (j == point) {
+                    builder.append('.');
+                }
+            }
+            String input = builder.toString();
+            checkFloat(input);
+            checkDouble(input);
+            checkDouble("-" + input);
+        }
+    }
+    
+    @Test
+    public void intsMatchParseInt() {
+        String[] inputs = { "0", "007", "9", "2147483647", "2147483640" };
+        for (String input : inputs) {
+            assertEquals(input, Integer.parseInt(input),
+                    ArgumentScanner.parseInt(input, 0, input.length()));
+        }
+    }
+    
+    @Test(expected = NumberFormatException.class)
+    public void overflowingIntIsRefused() {
+        ArgumentScanner.parseInt("2147483648", 0, 10);
+    }
+    
+    @Test(expected = NumberFormatException.class)
+    public void longIntIsRefused() {
+        String input = "x:99999999999:1";
+        ArgumentScanner.parseInt(input, 2, 13);
+    }
+    
+}
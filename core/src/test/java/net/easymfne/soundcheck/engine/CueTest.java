@@ -0,0 +1,172 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import net.easymfne.soundcheck.LoadMonitor;
+import net.easymfne.soundcheck.engine.RecordingSink.Track;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of when a Cue plays its frames: on time, while paused and after
+ * seeking, and thinned when the engine is under load.
+ * 
+ * @author Eric Hildebrand
+ */
+public class CueTest {
+    
+    private ManualClock clock;
+    private RecordingSink sink;
+    private Engine<Track, String> engine;
+    private Track track;
+    
+    /**
+     * Run the clock a number of times.
+     * 
+     * @param ticks
+     *            Number of ticks
+     */
+    private void run(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            clock.tick();
+        }
+    }
+    
+    @Before
+    public void setUp() {
+        clock = new ManualClock();
+        sink = new RecordingSink(clock);
+        engine = new Engine<Track, String>(clock, sink);
+        track = new Track("track", 0, 1, 5, 10);
+    }
+    
+    @Test
+    public void framesPlayWhenDue() {
+        Cue<Track, String> cue = engine.play(track, "a");
+        run(10);
+        assertTrue(cue.isDone());
+        assertEquals(Arrays.asList("a:0@1", "a:1@1", "a:2@5", "a:3@10"),
+                sink.getPlayed());
+        assertFalse(clock.isRunning());
+    }
+    
+    @Test
+    public void pauseHoldsPosition() {
+        Cue<Track, String> cue = engine.play(track, "a");
+        run(2);
+        cue.pause();
+        assertTrue(cue.isPaused());
+        run(5);
+        assertEquals(2, cue.getTick());
+        assertEquals(Arrays.asList("a:0@1", "a:1@1"), sink.getPlayed());
+        cue.resume();
+        run(8);
+        assertTrue(cue.isDone());
+        /* Resumed at tick 7 from position 2, so 5 and 10 are due 3 and 8 on */
+        assertEquals(Arrays.asList("a:0@1", "a:1@1", "a:2@10", "a:3@15"),
+                sink.getPlayed());
+    }
+    
+    @Test
+    public void pausedCueKeepsClockRunning() {
+        Cue<Track, String> cue = engine.play(track, "a");
+        cue.pause();
+        run(20);
+        assertTrue(clock.isRunning());
+        assertFalse(cue.isDone());
+        assertEquals(0, cue.getTick());
+        assertTrue(sink.getPlayed().isEmpty());
+    }
+    
+    @Test
+    public void seekForwardSkipsFrames() {
+        Cue<Track, String> cue = engine.play(track, "a");
+        cue.seek(4);
+        run(1);
+        assertEquals(5, cue.getTick());
+        assertEquals(Arrays.asList("a:2@1"), sink.getPlayed());
+        run(5);
+        assertTrue(cue.isDone());
+        assertEquals(Arrays.asList("a:2@1", "a:3@6"), sink.getPlayed());
+    }
+    
+    @Test
+    public void seekBackwardReplaysFrames() {
+        Cue<Track, String> cue = engine.play(track, "a");
+        run(5);
+        cue.seek(1);
+        run(4);
+        /* The frame at 1 is due at once, so it plays on the next tick */
+        assertEquals(Arrays.asList("a:0@1", "a:1@1", "a:2@5", "a:1@6",
+                "a:2@9"), sink.getPlayed());
+        assertFalse(cue.isDone());
+    }
+    
+    @Test
+    public void seekWhilePausedTakesEffectOnResume() {
+        Cue<Track, String> cue = engine.play(track, "a");
+        cue.pause();
+        cue.seek(9);
+        assertEquals(9, cue.getTick());
+        run(3);
+        assertTrue(sink.getPlayed().isEmpty());
+        cue.resume();
+        run(1);
+        assertTrue(cue.isDone());
+        assertEquals(Arrays.asList("a:3@4"), sink.getPlayed());
+    }
+    
+    @Test
+    public void seekPastEndFinishesCue() {
+        Cue<Track, String> cue = engine.play(track, "a");
+        cue.seek(50);
+        run(1);
+        assertTrue(cue.isDone());
+        assertTrue(sink.getPlayed().isEmpty());
+        assertFalse(clock.isRunning());
+    }
+    
+    @Test
+    public void thinningShedsEveryOtherDueFrame() {
+        /* Measured TPS never exceeds 20, so frames are always thinned */
+        engine.getLoadMonitor().configure(true, 100.0, 100.0, 100.0);
+        Cue<Track, String> cue = engine.play(new Track("dense", 0, 0, 0, 0,
+                1, 3), "a");
+        run(3);
+        assertEquals(LoadMonitor.THIN_FRAMES, engine.getLoadMonitor()
+                .getLevel());
+        assertTrue(cue.isDone());
+        /* Five frames are due on the first tick, then one on its own */
+        assertEquals(Arrays.asList("a:0@1", "a:2@1", "a:4@1", "a:5@3"),
+                sink.getPlayed());
+    }
+    
+    @Test
+    public void noThinningAtFullFidelity() {
+        engine.getLoadMonitor().configure(false, 100.0, 100.0, 100.0);
+        engine.play(new Track("dense", 0, 0, 0), "a");
+        run(1);
+        assertEquals(Arrays.asList("a:0@1", "a:1@1", "a:2@1"),
+                sink.getPlayed());
+    }
+    
+}
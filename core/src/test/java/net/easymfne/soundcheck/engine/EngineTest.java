@@ -0,0 +1,247 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.easymfne.soundcheck.Emitter;
+import net.easymfne.soundcheck.LoadMonitor;
+import net.easymfne.soundcheck.PlaybackLimits;
+import net.easymfne.soundcheck.PlaybackLimits.Policy;
+import net.easymfne.soundcheck.Venue;
+import net.easymfne.soundcheck.engine.RecordingSink.Track;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of how an Engine admits cues under its limits with each policy, runs
+ * its clock only while there is something to play, degrades frames as its
+ * clock lags, and merges identical emissions within a tick.
+ * 
+ * @author Eric Hildebrand
+ */
+public class EngineTest {
+    
+    private ManualClock clock;
+    private RecordingSink sink;
+    private Engine<Track, String> engine;
+    private Track track;
+    
+    /**
+     * Run the clock until the engine stops it.
+     */
+    private void runOut() {
+        while (clock.tick()) {
+            continue;
+        }
+    }
+    
+    @Before
+    public void setUp() {
+        clock = new ManualClock();
+        sink = new RecordingSink(clock);
+        engine = new Engine<Track, String>(clock, sink);
+        track = new Track("track", 0, 2);
+    }
+    
+    @Test
+    public void clockRunsOnlyWhilePlaying() {
+        assertFalse(clock.isRunning());
+        engine.play(track, "a");
+        assertTrue(clock.isRunning());
+        runOut();
+        assertEquals(0, engine.getActiveCount());
+        assertEquals(Arrays.asList("a:0@1", "a:1@2"), sink.getPlayed());
+    }
+    
+    @Test
+    public void coalescerMergesOnlyWithinATick() {
+        final List<String> heard = new ArrayList<String>();
+        Emitter<String, Object> emitter = new Emitter<String, Object>(
+                new Venue<String>() {
+                    @Override
+                    public void playEffect(String world, double x, double y,
+                            double z, int effect, int data, int radius) {
+                        heard.add(world + "@" + clock.getTicks());
+                    }
+                    
+                    @Override
+                    public void playSound(String world, double x, double y,
+                            double z, int sound, float volume, float pitch) {
+                        heard.add(world + "@" + clock.getTicks());
+                    }
+                }, null);
+        emitter.getCoalescer().setDistance(1.0);
+        sink.setEmitter(emitter);
+        engine.play(track, "a");
+        engine.play(track, "a");
+        runOut();
+        assertEquals(4, sink.getPlayed().size());
+        /* Merged on the same tick, but not with the previous tick */
+        assertEquals(Arrays.asList("a@1", "a@2"), heard);
+    }
+    
+    @Test
+    public void dropRefusesCueOverLimit() {
+        engine.setLimits(new PlaybackLimits(1, 0, 0, Policy.DROP, 0));
+        Cue<Track, String> first = engine.play(track, "a");
+        assertNotNull(first);
+        assertNull(engine.play(track, "b"));
+        assertEquals(1, engine.getActiveCount());
+        runOut();
+        assertTrue(first.isDone());
+        assertEquals(Arrays.asList("a:0@1", "a:1@2"), sink.getPlayed());
+    }
+    
+    @Test
+    public void lagDegradesFramesLevelByLevel() {
+        LoadMonitor monitor = engine.getLoadMonitor();
+        monitor.configure(true, 19.0, 15.0, 10.0);
+        engine.play(new Track("long", 0, 400), "a");
+        /* Tick lengths of 20, 16.7, 12.5, and 5 TPS */
+        long[] millis = { 50, 60, 80, 200 };
+        int[] levels = { LoadMonitor.FULL, LoadMonitor.SHRINK_RADIUS,
+                LoadMonitor.DROP_EFFECTS, LoadMonitor.THIN_FRAMES };
+        for (int i = 0; i < millis.length; i++) {
+            clock.setTickLength(millis[i] * 1000000L);
+            for (int tick = 0; tick < 100; tick++) {
+                clock.tick();
+            }
+            assertEquals(levels[i], monitor.getLevel());
+        }
+        assertFalse(clock.isRunning());
+        assertEquals(Arrays.asList("a:0@1", "a:1@400"), sink.getPlayed());
+        assertEquals(LoadMonitor.THIN_FRAMES, sink.getLevel());
+    }
+    
+    @Test
+    public void perRegionLimitIgnoresOtherRegions() {
+        engine.setLimits(new PlaybackLimits(0, 1, 0, Policy.DROP, 0));
+        assertNotNull(engine.play(track, "a"));
+        assertNull(engine.play(track, "a"));
+        assertNotNull(engine.play(track, "b"));
+        assertEquals(2, engine.getActiveCount());
+    }
+    
+    @Test
+    public void perTimelineLimitIgnoresOtherTimelines() {
+        engine.setLimits(new PlaybackLimits(0, 0, 1, Policy.DROP, 0));
+        assertNotNull(engine.play(track, "a"));
+        assertNull(engine.play(track, "b"));
+        assertNotNull(engine.play(new Track("other", 0), "b"));
+        assertEquals(2, engine.getActiveCount());
+    }
+    
+    @Test
+    public void queueHoldsCueUntilThereIsRoom() {
+        engine.setLimits(new PlaybackLimits(1, 0, 0, Policy.QUEUE, 1));
+        Cue<Track, String> first = engine.play(track, "a");
+        Cue<Track, String> second = engine.play(track, "b");
+        assertTrue(second.isQueued());
+        assertNull(engine.play(track, "c"));
+        assertEquals(1, engine.getQueuedCount());
+        runOut();
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertEquals(0, engine.getQueuedCount());
+        /* The queued cue starts on the tick the first one finishes */
+        assertEquals(Arrays.asList("a:0@1", "a:1@2", "b:0@3", "b:1@4"),
+                sink.getPlayed());
+    }
+    
+    @Test
+    public void cancelledQueuedCueIsNeverStarted() {
+        engine.setLimits(new PlaybackLimits(1, 0, 0, Policy.QUEUE, 1));
+        engine.play(track, "a");
+        Cue<Track, String> second = engine.play(track, "b");
+        second.cancel();
+        assertTrue(second.isDone());
+        assertEquals(0, engine.getQueuedCount());
+        runOut();
+        assertEquals(Arrays.asList("a:0@1", "a:1@2"), sink.getPlayed());
+    }
+    
+    @Test
+    public void cancelledQueuedCueFreesItsPlace() {
+        engine.setLimits(new PlaybackLimits(1, 0, 0, Policy.QUEUE, 1));
+        engine.play(track, "a");
+        engine.play(track, "b").cancel();
+        Cue<Track, String> third = engine.play(track, "c");
+        assertNotNull(third);
+        assertTrue(third.isQueued());
+        assertEquals(1, engine.getQueuedCount());
+        assertSame(third, engine.get(third.getId()));
+        runOut();
+        assertEquals(Arrays.asList("a:0@1", "a:1@2", "c:0@3", "c:1@4"),
+                sink.getPlayed());
+    }
+    
+    @Test
+    public void cancelledScheduledCuesAreSkipped() {
+        List<Cue<Track, String>> cancelled =
+                new ArrayList<Cue<Track, String>>();
+        for (int i = 0; i < 200; i++) {
+            cancelled.add(engine.play(track, "x" + i));
+        }
+        Cue<Track, String> kept = engine.play(track, "a");
+        for (Cue<Track, String> cue : cancelled) {
+            cue.cancel();
+        }
+        assertEquals(1, engine.getActiveCount());
+        runOut();
+        assertTrue(kept.isDone());
+        assertEquals(Arrays.asList("a:0@1", "a:1@2"), sink.getPlayed());
+    }
+    
+    @Test
+    public void replaceCancelsOldestCue() {
+        engine.setLimits(new PlaybackLimits(1, 0, 0, Policy.REPLACE, 0));
+        Cue<Track, String> first = engine.play(track, "a");
+        clock.tick();
+        Cue<Track, String> second = engine.play(track, "b");
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(1, engine.getActiveCount());
+        runOut();
+        assertEquals(Arrays.asList("a:0@1", "b:0@2", "b:1@3"),
+                sink.getPlayed());
+    }
+    
+    @Test
+    public void stopAllCancelsActiveAndQueuedCues() {
+        engine.setLimits(new PlaybackLimits(1, 0, 0, Policy.QUEUE, 1));
+        Cue<Track, String> first = engine.play(track, "a");
+        Cue<Track, String> second = engine.play(track, "b");
+        assertEquals(2, engine.stopAll());
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertEquals(0, engine.getActiveCount());
+        assertEquals(0, engine.getQueuedCount());
+        clock.tick();
+        assertFalse(clock.isRunning());
+        assertTrue(sink.getPlayed().isEmpty());
+    }
+    
+}
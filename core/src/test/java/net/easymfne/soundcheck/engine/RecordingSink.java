@@ -0,0 +1,115 @@
+/*
+ * This file is part of the Soundcheck plugin by EasyMFnE.
+ * 
+ * Soundcheck is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or any later version.
+ * 
+ * Soundcheck is distributed in the hope that it will be useful, but without any
+ * warranty; without even the implied warranty of merchantability or fitness for
+ * a particular purpose. See the GNU General Public License for details.
+ * 
+ * You should have received a copy of the GNU General Public License v3 along
+ * with Soundcheck. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.easymfne.soundcheck.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.easymfne.soundcheck.Emitter;
+
+/**
+ * Sink for tests that records each frame it is sent, as "location:index@tick",
+ * where tick is the number of ticks its clock has run. Frames play nothing,
+ * unless an Emitter is set, when each one plays the same sound through it.
+ * 
+ * @author Eric Hildebrand
+ */
+class RecordingSink implements Sink<RecordingSink.Track, String> {
+    
+    /**
+     * Timeline for tests, where every frame makes one emission.
+     */
+    static class Track extends Timeline {
+        
+        /**
+         * @param name
+         *            Name of the track
+         * @param times
+         *            Time offset of each frame (in ticks), sorted
+         */
+        Track(String name, int... times) {
+            super(name, times);
+        }
+        
+        @Override
+        public int getEmissionCount(int index) {
+            return 1;
+        }
+        
+    }
+    
+    private final ManualClock clock;
+    private final List<String> played = new ArrayList<String>();
+    private Emitter<String, ?> emitter = null;
+    private int level = -1;
+    
+    /**
+     * @param clock
+     *            Clock whose ticks are recorded with each frame
+     */
+    RecordingSink(ManualClock clock) {
+        this.clock = clock;
+    }
+    
+    /**
+     * @return Degradation level of the last frame played, or -1 if none has
+     *         been played
+     */
+    int getLevel() {
+        return level;
+    }
+    
+    /**
+     * @return Frames played so far, in order
+     */
+    List<String> getPlayed() {
+        return played;
+    }
+    
+    /**
+     * Every location is its own region.
+     */
+    @Override
+    public String getRegion(String location) {
+        return location;
+    }
+    
+    @Override
+    public int play(Track track, int index, String location, int level) {
+        played.add(location + ":" + index + "@" + clock.getTicks());
+        this.level = level;
+        if (emitter != null) {
+            emitter.playSound(location, 0.0, 0.0, 0.0, 0, 1f, 1f);
+        }
+        return 0;
+    }
+    
+    /**
+     * @param emitter
+     *            Emitter that every frame plays a sound through, at the origin
+     *            of the world named by its location, or null to play nothing
+     */
+    void setEmitter(Emitter<String, ?> emitter) {
+        this.emitter = emitter;
+    }
+    
+    @Override
+    public void startTick() {
+        if (emitter != null) {
+            emitter.startBatch();
+        }
+    }
+    
+}